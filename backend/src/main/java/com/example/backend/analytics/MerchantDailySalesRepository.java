@@ -0,0 +1,19 @@
+package com.example.backend.analytics;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 商户日销售汇总数据访问层
+ */
+@Repository
+public interface MerchantDailySalesRepository extends JpaRepository<MerchantDailySales, Long> {
+
+    /**
+     * 日期范围内的日汇总（唯一索引 merchant_id, sales_date 范围扫描）
+     */
+    List<MerchantDailySales> findByMerchantIdAndSalesDateBetweenOrderBySalesDate(Long merchantId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,61 @@
+package com.example.backend.analytics;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 商户商品日销售汇总（按下单日期归集），由订单事件增量维护
+ */
+@Entity
+@Table(name = "merchant_product_daily_sales",
+        uniqueConstraints = @UniqueConstraint(name = "uk_merchant_product_daily_sales",
+                columnNames = {"merchant_id", "sales_date", "product_id"}))
+@Data
+@NoArgsConstructor
+public class MerchantProductDailySales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "merchant_id", nullable = false)
+    private Long merchantId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    /** 包含该商品的订单数 */
+    @Column(name = "orders_count", nullable = false)
+    private Long ordersCount = 0L;
+
+    @Column(name = "units_ordered", nullable = false)
+    private Long unitsOrdered = 0L;
+
+    @Column(name = "ordered_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal orderedAmount = BigDecimal.ZERO;
+
+    @Column(name = "units_paid", nullable = false)
+    private Long unitsPaid = 0L;
+
+    @Column(name = "paid_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal paidAmount = BigDecimal.ZERO;
+
+    @Column(name = "cancelled_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal cancelledAmount = BigDecimal.ZERO;
+
+    @Column(name = "refunded_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal refundedAmount = BigDecimal.ZERO;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,29 @@
+package com.example.backend.analytics;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 商户商品日销售汇总数据访问层
+ */
+@Repository
+public interface MerchantProductDailySalesRepository extends JpaRepository<MerchantProductDailySales, Long> {
+
+    /**
+     * 日期范围内按商品合计，按已支付金额降序：
+     * (productId, 订单数, 下单件数, 下单金额, 支付件数, 支付金额, 取消金额, 退款金额)
+     */
+    @Query("SELECT s.productId, SUM(s.ordersCount), SUM(s.unitsOrdered), SUM(s.orderedAmount), " +
+            "SUM(s.unitsPaid), SUM(s.paidAmount), SUM(s.cancelledAmount), SUM(s.refundedAmount) " +
+            "FROM MerchantProductDailySales s " +
+            "WHERE s.merchantId = :merchantId AND s.salesDate BETWEEN :from AND :to " +
+            "GROUP BY s.productId ORDER BY SUM(s.paidAmount) DESC, s.productId")
+    List<Object[]> sumByProduct(@Param("merchantId") Long merchantId, @Param("from") LocalDate from,
+                                @Param("to") LocalDate to, Pageable pageable);
+}
@@ -0,0 +1,59 @@
+package com.example.backend.analytics;
+
+import com.example.backend.analytics.dto.MerchantSalesReport;
+import com.example.backend.analytics.dto.ProductSales;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 商户销售分析控制器
+ */
+@RestController
+@RequestMapping("/analytics")
+@CrossOrigin(origins = "*")
+public class SalesAnalyticsController {
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    /**
+     * 商户每日销售（日期包含两端，格式 yyyy-MM-dd）
+     */
+    @GetMapping("/merchants/{merchantId}/sales")
+    public ResponseEntity<MerchantSalesReport> getMerchantSales(
+            @PathVariable Long merchantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesAnalyticsService.getMerchantSales(merchantId, from, to));
+    }
+
+    /**
+     * 商户商品销售排行（按已支付金额）
+     */
+    @GetMapping("/merchants/{merchantId}/products")
+    public ResponseEntity<List<ProductSales>> getProductSales(
+            @PathVariable Long merchantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(salesAnalyticsService.getProductSales(merchantId, from, to, limit));
+    }
+
+    /**
+     * 全量重建销售汇总（仅管理员，后台执行）
+     */
+    @PostMapping("/sales/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, String>> rebuild() {
+        salesAnalyticsService.rebuild();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("message", "销售汇总重建已开始"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.backend.analytics;
+
+import com.example.backend.analytics.dto.DailySales;
+import com.example.backend.analytics.dto.MerchantSalesReport;
+import com.example.backend.analytics.dto.ProductSales;
+import com.example.backend.analytics.exception.InvalidDateRangeException;
+import com.example.backend.product.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 商户销售分析服务（只读取预聚合的汇总表，不扫描订单明细）
+ */
+@Service
+@Transactional(readOnly = true)
+public class SalesAnalyticsService {
+
+    /** 单次查询的最大天数 */
+    private static final long MAX_RANGE_DAYS = 366;
+
+    /** 商品排行最大条数 */
+    private static final int MAX_PRODUCT_LIMIT = 100;
+
+    @Autowired
+    private MerchantDailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private MerchantProductDailySalesRepository productDailySalesRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SalesRollupBackfill backfill;
+
+    /**
+     * 商户日期范围内的销售合计和每日明细
+     */
+    public MerchantSalesReport getMerchantSales(Long merchantId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        List<DailySales> daily = dailySalesRepository
+                .findByMerchantIdAndSalesDateBetweenOrderBySalesDate(merchantId, from, to).stream()
+                .map(DailySales::fromEntity)
+                .collect(Collectors.toList());
+
+        MerchantSalesReport report = MerchantSalesReport.builder()
+                .merchantId(merchantId)
+                .from(from)
+                .to(to)
+                .ordersCount(0L)
+                .unitsOrdered(0L)
+                .orderedAmount(BigDecimal.ZERO)
+                .unitsPaid(0L)
+                .paidAmount(BigDecimal.ZERO)
+                .cancelledAmount(BigDecimal.ZERO)
+                .refundedAmount(BigDecimal.ZERO)
+                .daily(daily)
+                .build();
+        for (DailySales day : daily) {
+            report.setOrdersCount(report.getOrdersCount() + day.getOrdersCount());
+            report.setUnitsOrdered(report.getUnitsOrdered() + day.getUnitsOrdered());
+            report.setOrderedAmount(report.getOrderedAmount().add(day.getOrderedAmount()));
+            report.setUnitsPaid(report.getUnitsPaid() + day.getUnitsPaid());
+            report.setPaidAmount(report.getPaidAmount().add(day.getPaidAmount()));
+            report.setCancelledAmount(report.getCancelledAmount().add(day.getCancelledAmount()));
+            report.setRefundedAmount(report.getRefundedAmount().add(day.getRefundedAmount()));
+        }
+        return report;
+    }
+
+    /**
+     * 商户日期范围内各商品的销售合计，按已支付金额降序
+     */
+    public List<ProductSales> getProductSales(Long merchantId, LocalDate from, LocalDate to, int limit) {
+        checkRange(from, to);
+        int size = Math.max(1, Math.min(limit, MAX_PRODUCT_LIMIT));
+        List<Object[]> rows = productDailySalesRepository.sumByProduct(merchantId, from, to, PageRequest.of(0, size));
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, String> names = new HashMap<>();
+        for (Object[] row : productRepository.findNamesByIdIn(rows.stream().map(row -> (Long) row[0]).toList())) {
+            names.put((Long) row[0], (String) row[1]);
+        }
+        return rows.stream()
+                .map(row -> ProductSales.builder()
+                        .productId((Long) row[0])
+                        .productName(names.get((Long) row[0]))
+                        .ordersCount(((Number) row[1]).longValue())
+                        .unitsOrdered(((Number) row[2]).longValue())
+                        .orderedAmount((BigDecimal) row[3])
+                        .unitsPaid(((Number) row[4]).longValue())
+                        .paidAmount((BigDecimal) row[5])
+                        .cancelledAmount((BigDecimal) row[6])
+                        .refundedAmount((BigDecimal) row[7])
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 后台全量重建汇总表
+     */
+    public void rebuild() {
+        backfill.rebuildAsync();
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidDateRangeException("开始日期不能晚于结束日期");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new InvalidDateRangeException("查询范围不能超过" + MAX_RANGE_DAYS + "天");
+        }
+    }
+}
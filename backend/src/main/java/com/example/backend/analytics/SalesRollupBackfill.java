@@ -0,0 +1,221 @@
+package com.example.backend.analytics;
+
+import com.example.backend.analytics.exception.SalesRollupRebuildException;
+import com.example.backend.order.OrderOutboxCursor;
+import com.example.backend.order.OrderOutboxCursorRepository;
+import com.example.backend.order.OrderOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 销售汇总全量重建
+ * 按商户ID分片，多个分片并行在数据库内 INSERT ... SELECT 聚合（分片之间没有相同的汇总行，无需合并）；
+ * 重建期间持有销售汇总下游的发件箱游标锁，完成后把游标设为重建开始时的最大事件ID，之后的事件继续增量累加。
+ * 首次启动（尚无游标）时自动执行
+ */
+@Component
+public class SalesRollupBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupBackfill.class);
+
+    /** 获取游标锁的最大尝试次数（等待其他实例进行中的增量投递结束） */
+    private static final int LOCK_ATTEMPTS = 50;
+
+    private static final String MEASURES_SELECT =
+            "COUNT(DISTINCT o.id), SUM(i.quantity), SUM(i.total_price), " +
+            "SUM(CASE WHEN o.payment_status = 'PAID' THEN i.quantity ELSE 0 END), " +
+            "SUM(CASE WHEN o.payment_status = 'PAID' THEN i.total_price ELSE 0 END), " +
+            "SUM(CASE WHEN o.status = 'CANCELLED' THEN i.total_price ELSE 0 END), " +
+            "SUM(CASE WHEN o.payment_status = 'REFUNDED' THEN i.total_price ELSE 0 END), " +
+            "CURRENT_TIMESTAMP ";
+
+    private static final String MEASURES_COLUMNS =
+            "orders_count, units_ordered, ordered_amount, units_paid, paid_amount, cancelled_amount, refunded_amount, updated_at";
+
+    private static final String REBUILD_MERCHANT_DAYS =
+            "INSERT INTO merchant_daily_sales (merchant_id, sales_date, " + MEASURES_COLUMNS + ") " +
+            "SELECT i.merchant_id, CAST(o.order_date AS DATE), " + MEASURES_SELECT +
+            "FROM order_items i JOIN orders o ON o.id = i.order_id " +
+            "WHERE i.merchant_id BETWEEN ? AND ? " +
+            "GROUP BY i.merchant_id, CAST(o.order_date AS DATE)";
+
+    private static final String REBUILD_PRODUCT_DAYS =
+            "INSERT INTO merchant_product_daily_sales (merchant_id, sales_date, product_id, " + MEASURES_COLUMNS + ") " +
+            "SELECT i.merchant_id, CAST(o.order_date AS DATE), i.product_id, " + MEASURES_SELECT +
+            "FROM order_items i JOIN orders o ON o.id = i.order_id " +
+            "WHERE i.merchant_id BETWEEN ? AND ? " +
+            "GROUP BY i.merchant_id, CAST(o.order_date AS DATE), i.product_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private OrderOutboxCursorRepository cursorRepository;
+
+    /** 并行重建的分片数 */
+    @Value("${app.analytics.backfill.parallelism:4}")
+    private int parallelism;
+
+    /** 每个分片包含的商户数 */
+    @Value("${app.analytics.backfill.merchants-per-chunk:50}")
+    private int merchantsPerChunk;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate chunkTransactionTemplate;
+
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sales-rollup-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** 汇总表可以增量累加（已完成重建） */
+    private volatile boolean ready;
+
+    public SalesRollupBackfill(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 应用启动后检查：从未重建过则在后台执行一次
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (cursorRepository.existsById(SalesRollupSink.NAME)) {
+            ready = true;
+        } else {
+            rebuildAsync();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * 在后台线程中全量重建
+     */
+    public void rebuildAsync() {
+        if (!running.compareAndSet(false, true)) {
+            throw new SalesRollupRebuildException("销售汇总正在重建，请稍后再试");
+        }
+        ready = false;
+        coordinator.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                // 汇总表可能不完整，保持暂停增量累加，等待重新执行重建
+                log.error("销售汇总重建失败", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    /**
+     * 全量重建（同步执行），完成后恢复增量累加
+     */
+    void rebuild() {
+        long start = System.currentTimeMillis();
+        int chunks;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                chunks = rebuildLocked();
+                break;
+            } catch (PessimisticLockingFailureException e) {
+                // 其他实例正在投递该下游，等待其本批结束
+                if (attempt >= LOCK_ATTEMPTS) {
+                    throw e;
+                }
+                sleep(200, e);
+            }
+        }
+        ready = true;
+        log.info("销售汇总重建完成: {} 个分片，耗时 {} ms", chunks, System.currentTimeMillis() - start);
+    }
+
+    private int rebuildLocked() {
+        return transactionTemplate.execute(status -> {
+            OrderOutboxCursor cursor = cursorRepository.findBySinkForUpdate(SalesRollupSink.NAME)
+                    .orElseGet(() -> cursorRepository.save(new OrderOutboxCursor(SalesRollupSink.NAME, 0L, null)));
+            long lastEventId = outboxRepository.findMaxId().orElse(0L);
+
+            chunkTransactionTemplate.executeWithoutResult(chunk -> {
+                jdbcTemplate.update("DELETE FROM merchant_product_daily_sales");
+                jdbcTemplate.update("DELETE FROM merchant_daily_sales");
+            });
+
+            List<Long> merchantIds = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT merchant_id FROM order_items ORDER BY merchant_id", Long.class);
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            ExecutorService workers = Executors.newFixedThreadPool(Math.max(parallelism, 1));
+            try {
+                for (int from = 0; from < merchantIds.size(); from += merchantsPerChunk) {
+                    long first = merchantIds.get(from);
+                    long last = merchantIds.get(Math.min(from + merchantsPerChunk, merchantIds.size()) - 1);
+                    futures.add(CompletableFuture.runAsync(() -> rebuildChunk(first, last), workers));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            } finally {
+                workers.shutdown();
+            }
+
+            cursor.setLastEventId(lastEventId);
+            cursorRepository.save(cursor);
+            return futures.size();
+        });
+    }
+
+    private void rebuildChunk(long firstMerchantId, long lastMerchantId) {
+        chunkTransactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(REBUILD_MERCHANT_DAYS, firstMerchantId, lastMerchantId);
+            jdbcTemplate.update(REBUILD_PRODUCT_DAYS, firstMerchantId, lastMerchantId);
+        });
+    }
+
+    private static void sleep(long millis, RuntimeException cause) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.backend.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 一批销售汇总增量，按汇总行合并；按键排序保存，写入时各事务以相同顺序加锁，避免死锁
+ */
+class SalesRollupDelta {
+
+    record MerchantDay(long merchantId, LocalDate date) {
+    }
+
+    record ProductDay(long merchantId, LocalDate date, long productId) {
+    }
+
+    /**
+     * 单个汇总行的增量
+     */
+    static final class Measures {
+        long ordersCount;
+        long unitsOrdered;
+        BigDecimal orderedAmount = BigDecimal.ZERO;
+        long unitsPaid;
+        BigDecimal paidAmount = BigDecimal.ZERO;
+        BigDecimal cancelledAmount = BigDecimal.ZERO;
+        BigDecimal refundedAmount = BigDecimal.ZERO;
+
+        boolean isZero() {
+            return ordersCount == 0 && unitsOrdered == 0 && unitsPaid == 0
+                    && orderedAmount.signum() == 0 && paidAmount.signum() == 0
+                    && cancelledAmount.signum() == 0 && refundedAmount.signum() == 0;
+        }
+    }
+
+    final Map<MerchantDay, Measures> merchantDays = new TreeMap<>(
+            Comparator.comparingLong(MerchantDay::merchantId).thenComparing(MerchantDay::date));
+
+    final Map<ProductDay, Measures> productDays = new TreeMap<>(
+            Comparator.comparingLong(ProductDay::merchantId)
+                    .thenComparing(ProductDay::date)
+                    .thenComparingLong(ProductDay::productId));
+
+    Measures merchantDay(long merchantId, LocalDate date) {
+        return merchantDays.computeIfAbsent(new MerchantDay(merchantId, date), key -> new Measures());
+    }
+
+    Measures productDay(long merchantId, LocalDate date, long productId) {
+        return productDays.computeIfAbsent(new ProductDay(merchantId, date, productId), key -> new Measures());
+    }
+
+    boolean isEmpty() {
+        return merchantDays.values().stream().allMatch(Measures::isZero)
+                && productDays.values().stream().allMatch(Measures::isZero);
+    }
+}
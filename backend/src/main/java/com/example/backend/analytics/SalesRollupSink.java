@@ -0,0 +1,115 @@
+package com.example.backend.analytics;
+
+import com.example.backend.order.OrderEventSink;
+import com.example.backend.order.OrderEventType;
+import com.example.backend.order.OrderOutbox;
+import com.example.backend.order.OrderOutboxEvent;
+import com.example.backend.order.OrderStatus;
+import com.example.backend.order.PaymentStatus;
+import com.example.backend.order.dto.OrderEventPayload;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 销售汇总下游：把一批订单事件合并为汇总增量后一次写入，与投递游标在同一事务中提交（每个事件恰好计入一次）。
+ * 订单对汇总的贡献只取决于其状态：下单计入下单量；支付状态为 PAID 计入已支付；
+ * 订单状态为 CANCELLED 计入取消金额；支付状态为 REFUNDED 计入退款金额。
+ * 状态变更事件的增量 = 新状态的贡献 - 旧状态的贡献，与全量重建的口径一致
+ */
+@Component
+public class SalesRollupSink implements OrderEventSink {
+
+    static final String NAME = "sales-rollup";
+
+    @Autowired
+    private OrderOutbox orderOutbox;
+
+    @Autowired
+    private SalesRollupWriter writer;
+
+    @Autowired
+    private SalesRollupBackfill backfill;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * 重建期间暂停增量投递，重建完成后从重建时记录的游标继续
+     */
+    @Override
+    public boolean isAvailable() {
+        return backfill.isReady();
+    }
+
+    @Override
+    public void deliver(List<OrderOutboxEvent> events) {
+        SalesRollupDelta delta = new SalesRollupDelta();
+        for (OrderOutboxEvent event : events) {
+            accumulate(delta, event.getEventType(), orderOutbox.readPayload(event));
+        }
+        if (!delta.isEmpty()) {
+            writer.apply(delta);
+        }
+    }
+
+    static void accumulate(SalesRollupDelta delta, OrderEventType type, OrderEventPayload order) {
+        if (order.getOrderDate() == null || order.getItems() == null) {
+            return;
+        }
+        boolean created = type == OrderEventType.CREATED;
+        boolean deleted = type == OrderEventType.DELETED;
+        int sign = deleted ? -1 : 1;
+
+        int ordered = created ? 1 : deleted ? -1 : 0;
+        int paid = sign * flag(order.getPaymentStatus() == PaymentStatus.PAID);
+        int cancelled = sign * flag(order.getStatus() == OrderStatus.CANCELLED);
+        int refunded = sign * flag(order.getPaymentStatus() == PaymentStatus.REFUNDED);
+        if (!created && !deleted) {
+            if (order.getPreviousStatus() == null && order.getPreviousPaymentStatus() == null) {
+                return;
+            }
+            paid -= flag(order.getPreviousPaymentStatus() == PaymentStatus.PAID);
+            cancelled -= flag(order.getPreviousStatus() == OrderStatus.CANCELLED);
+            refunded -= flag(order.getPreviousPaymentStatus() == PaymentStatus.REFUNDED);
+        }
+        if (ordered == 0 && paid == 0 && cancelled == 0 && refunded == 0) {
+            return;
+        }
+
+        LocalDate date = order.getOrderDate().toLocalDate();
+        Set<Long> merchants = new HashSet<>();
+        Set<Long> products = new HashSet<>();
+        for (OrderEventPayload.Item item : order.getItems()) {
+            long quantity = item.getQuantity();
+            BigDecimal amount = item.getTotalPrice();
+            SalesRollupDelta.Measures merchantDay = delta.merchantDay(item.getMerchantId(), date);
+            SalesRollupDelta.Measures productDay = delta.productDay(item.getMerchantId(), date, item.getProductId());
+            if (merchants.add(item.getMerchantId())) {
+                merchantDay.ordersCount += ordered;
+            }
+            if (products.add(item.getProductId())) {
+                productDay.ordersCount += ordered;
+            }
+            for (SalesRollupDelta.Measures measures : List.of(merchantDay, productDay)) {
+                measures.unitsOrdered += ordered * quantity;
+                measures.orderedAmount = measures.orderedAmount.add(amount.multiply(BigDecimal.valueOf(ordered)));
+                measures.unitsPaid += paid * quantity;
+                measures.paidAmount = measures.paidAmount.add(amount.multiply(BigDecimal.valueOf(paid)));
+                measures.cancelledAmount = measures.cancelledAmount.add(amount.multiply(BigDecimal.valueOf(cancelled)));
+                measures.refundedAmount = measures.refundedAmount.add(amount.multiply(BigDecimal.valueOf(refunded)));
+            }
+        }
+    }
+
+    private static int flag(boolean value) {
+        return value ? 1 : 0;
+    }
+}
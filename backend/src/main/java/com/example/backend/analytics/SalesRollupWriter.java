@@ -0,0 +1,95 @@
+package com.example.backend.analytics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 销售汇总写入：增量累加到已有汇总行（批量 UPDATE），不存在的行再批量插入。
+ * 增量只由 {@link SalesRollupSink} 写入，发件箱游标行锁保证同一时间只有一个写入者；须在事务中调用
+ */
+@Component
+public class SalesRollupWriter {
+
+    private static final String MEASURES_SET =
+            "orders_count = orders_count + ?, units_ordered = units_ordered + ?, ordered_amount = ordered_amount + ?, " +
+            "units_paid = units_paid + ?, paid_amount = paid_amount + ?, " +
+            "cancelled_amount = cancelled_amount + ?, refunded_amount = refunded_amount + ?, updated_at = ?";
+
+    private static final String MEASURES_COLUMNS =
+            "orders_count, units_ordered, ordered_amount, units_paid, paid_amount, cancelled_amount, refunded_amount, updated_at";
+
+    private static final String UPDATE_MERCHANT_DAY =
+            "UPDATE merchant_daily_sales SET " + MEASURES_SET + " WHERE merchant_id = ? AND sales_date = ?";
+
+    private static final String INSERT_MERCHANT_DAY =
+            "INSERT INTO merchant_daily_sales (merchant_id, sales_date, " + MEASURES_COLUMNS + ") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_PRODUCT_DAY =
+            "UPDATE merchant_product_daily_sales SET " + MEASURES_SET +
+            " WHERE merchant_id = ? AND sales_date = ? AND product_id = ?";
+
+    private static final String INSERT_PRODUCT_DAY =
+            "INSERT INTO merchant_product_daily_sales (merchant_id, sales_date, product_id, " + MEASURES_COLUMNS + ") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void apply(SalesRollupDelta delta) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        upsert(delta.merchantDays, UPDATE_MERCHANT_DAY, INSERT_MERCHANT_DAY,
+                key -> new Object[]{key.merchantId(), Date.valueOf(key.date())}, now);
+        upsert(delta.productDays, UPDATE_PRODUCT_DAY, INSERT_PRODUCT_DAY,
+                key -> new Object[]{key.merchantId(), Date.valueOf(key.date()), key.productId()}, now);
+    }
+
+    private <K> void upsert(Map<K, SalesRollupDelta.Measures> rows, String updateSql, String insertSql,
+                            Function<K, Object[]> keyColumns, Timestamp now) {
+        List<K> keys = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        for (Map.Entry<K, SalesRollupDelta.Measures> row : rows.entrySet()) {
+            if (row.getValue().isZero()) {
+                continue;
+            }
+            keys.add(row.getKey());
+            updates.add(concat(measures(row.getValue(), now), keyColumns.apply(row.getKey())));
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(updateSql, updates);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                inserts.add(concat(keyColumns.apply(keys.get(i)), measures(rows.get(keys.get(i)), now)));
+            }
+        }
+        if (inserts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(insertSql, inserts);
+    }
+
+    private static Object[] measures(SalesRollupDelta.Measures m, Timestamp now) {
+        return new Object[]{m.ordersCount, m.unitsOrdered, m.orderedAmount, m.unitsPaid, m.paidAmount,
+                m.cancelledAmount, m.refundedAmount, now};
+    }
+
+    private static Object[] concat(Object[] first, Object[] second) {
+        Object[] result = new Object[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.backend.analytics.dto;
+
+import com.example.backend.analytics.MerchantDailySales;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 单日销售数据DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySales {
+
+    private LocalDate date;
+    private Long ordersCount;
+    private Long unitsOrdered;
+    private BigDecimal orderedAmount;
+    private Long unitsPaid;
+    private BigDecimal paidAmount;
+    private BigDecimal cancelledAmount;
+    private BigDecimal refundedAmount;
+
+    public static DailySales fromEntity(MerchantDailySales sales) {
+        return DailySales.builder()
+                .date(sales.getSalesDate())
+                .ordersCount(sales.getOrdersCount())
+                .unitsOrdered(sales.getUnitsOrdered())
+                .orderedAmount(sales.getOrderedAmount())
+                .unitsPaid(sales.getUnitsPaid())
+                .paidAmount(sales.getPaidAmount())
+                .cancelledAmount(sales.getCancelledAmount())
+                .refundedAmount(sales.getRefundedAmount())
+                .build();
+    }
+}
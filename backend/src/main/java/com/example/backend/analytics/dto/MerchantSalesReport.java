@@ -0,0 +1,32 @@
+package com.example.backend.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 商户销售报表DTO：日期范围合计 + 每日明细（没有订单的日期不返回）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerchantSalesReport {
+
+    private Long merchantId;
+    private LocalDate from;
+    private LocalDate to;
+    private Long ordersCount;
+    private Long unitsOrdered;
+    private BigDecimal orderedAmount;
+    private Long unitsPaid;
+    private BigDecimal paidAmount;
+    private BigDecimal cancelledAmount;
+    private BigDecimal refundedAmount;
+    private List<DailySales> daily;
+}
@@ -0,0 +1,28 @@
+package com.example.backend.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 商品销售合计DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSales {
+
+    private Long productId;
+    private String productName;
+    private Long ordersCount;
+    private Long unitsOrdered;
+    private BigDecimal orderedAmount;
+    private Long unitsPaid;
+    private BigDecimal paidAmount;
+    private BigDecimal cancelledAmount;
+    private BigDecimal refundedAmount;
+}
@@ -0,0 +1,15 @@
+package com.example.backend.analytics.exception;
+
+/**
+ * 查询日期范围无效异常
+ */
+public class InvalidDateRangeException extends RuntimeException {
+
+    public InvalidDateRangeException(String message) {
+        super(message);
+    }
+
+    public InvalidDateRangeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
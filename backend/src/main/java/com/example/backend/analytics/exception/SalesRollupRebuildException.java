@@ -0,0 +1,15 @@
+package com.example.backend.analytics.exception;
+
+/**
+ * 销售汇总重建冲突异常（已有重建任务在执行）
+ */
+public class SalesRollupRebuildException extends RuntimeException {
+
+    public SalesRollupRebuildException(String message) {
+        super(message);
+    }
+
+    public SalesRollupRebuildException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
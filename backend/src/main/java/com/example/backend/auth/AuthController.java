@@ -1,14 +1,19 @@
 package com.example.backend.auth;
 
+import com.example.backend.auth.dto.RefreshTokenRequest;
+import com.example.backend.user.LoginAdmission;
 import com.example.backend.user.User;
 import com.example.backend.user.UserService;
 import com.example.backend.user.dto.LoginRequest;
 import com.example.backend.user.dto.RegisterRequest;
 import com.example.backend.user.dto.UserResponse;
 import com.example.backend.user.exception.InvalidCredentialsException;
+import com.example.backend.user.exception.LoginThrottledException;
 import com.example.backend.user.exception.UserAlreadyExistsException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -29,23 +34,28 @@ public class AuthController {
     private UserService userService;
     
     @Autowired
-    private JwtUtil jwtUtil;
+    private LoginAdmission loginAdmission;
+    
+    @Autowired
+    private TokenService tokenService;
     
     /**
      * 用户登录
      * 匹配前端期望的路径: /api/auth/login
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         try {
-            User user = userService.validateLogin(request);
+            User user = loginAdmission.login(request, httpRequest.getRemoteAddr());
             UserResponse userResponse = UserResponse.fromUser(user);
             
-            // 生成JWT token
-            String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name());
+            // 签发短期访问令牌和刷新令牌
+            IssuedTokens tokens = tokenService.issue(user);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("token", token);
+            response.put("token", tokens.accessToken());
+            response.put("refreshToken", tokens.refreshToken());
+            response.put("expiresIn", tokens.expiresIn());
             response.put("user", userResponse);
             
             return ResponseEntity.ok(response);
@@ -53,6 +63,12 @@ public class AuthController {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        } catch (LoginThrottledException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "登录失败: " + e.getMessage());
@@ -60,6 +76,31 @@ public class AuthController {
         }
     }
     
+    /**
+     * 刷新令牌：用刷新令牌换取新的访问令牌和刷新令牌，旧刷新令牌随即失效
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        IssuedTokens tokens = tokenService.refresh(request.getRefreshToken());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", tokens.accessToken());
+        response.put("refreshToken", tokens.refreshToken());
+        response.put("expiresIn", tokens.expiresIn());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * 退出登录：吊销刷新令牌及请求携带的访问令牌
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @Valid @RequestBody RefreshTokenRequest request,
+            @RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, required = false) JwtPrincipal principal) {
+        tokenService.logout(request.getRefreshToken(), principal);
+        return ResponseEntity.noContent().build();
+    }
+    
     /**
      * 用户注册
      * 匹配前端期望的路径: /api/auth/register
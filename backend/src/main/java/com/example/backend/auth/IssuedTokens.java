@@ -0,0 +1,7 @@
+package com.example.backend.auth;
+
+/**
+ * 签发的令牌对：短期访问令牌 + 可轮换的刷新令牌，expiresIn 为访问令牌有效期（秒）
+ */
+public record IssuedTokens(String accessToken, String refreshToken, long expiresIn) {
+}
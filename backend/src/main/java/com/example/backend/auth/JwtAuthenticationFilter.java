@@ -1,5 +1,6 @@
 package com.example.backend.auth;
 
+import com.example.backend.user.UserActivityTracker;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,8 +24,14 @@ import java.util.List;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
+    /** 验证通过的 JwtPrincipal 保存在该请求属性中，供退出登录等需要令牌信息的接口使用 */
+    public static final String PRINCIPAL_ATTRIBUTE = "com.example.backend.auth.JwtPrincipal";
+    
+    @Autowired
+    private TokenVerifier tokenVerifier;
+    
     @Autowired
-    private JwtUtil jwtUtil;
+    private UserActivityTracker activityTracker;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -33,34 +40,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         
-        String email = null;
-        String jwt = null;
-        
-        // 检查Authorization header格式: "Bearer <token>"
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
-            try {
-                email = jwtUtil.getEmailFromToken(jwt);
-            } catch (Exception e) {
-                logger.warn("JWT token validation failed: " + e.getMessage());
-            }
-        }
-        
-        // 如果token有效且当前没有认证信息，设置认证
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt)) {
-                String role = jwtUtil.getClaimFromToken(jwt, claims -> claims.get("role", String.class));
-                
+        // 检查Authorization header格式: "Bearer <token>"，已有认证信息时不再验证
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // 一次验签得到全部声明，命中缓存时不再验签；限流过滤器已验证过的直接复用
+            JwtPrincipal principal = request.getAttribute(PRINCIPAL_ATTRIBUTE) instanceof JwtPrincipal verified
+                    ? verified : tokenVerifier.verify(authHeader.substring(7));
+            if (principal == null) {
+                logger.warn("JWT token validation failed");
+            } else {
                 // 创建认证对象
                 List<SimpleGrantedAuthority> authorities = Collections.singletonList(
-                    new SimpleGrantedAuthority("ROLE_" + role)
+                    new SimpleGrantedAuthority("ROLE_" + principal.role())
                 );
                 
                 UsernamePasswordAuthenticationToken authToken = 
-                    new UsernamePasswordAuthenticationToken(email, null, authorities);
+                    new UsernamePasswordAuthenticationToken(principal.email(), null, authorities);
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+                
+                // 最后访问时间只写入内存缓冲，定时批量写库
+                if (principal.userId() != null) {
+                    activityTracker.recordSeen(principal.userId());
+                }
             }
         }
         
@@ -0,0 +1,14 @@
+package com.example.backend.auth;
+
+import java.time.Instant;
+
+/**
+ * 已验证的 JWT 主体信息（不可变），验签一次后供整个请求使用并可跨请求缓存
+ * tokenId 为令牌的 jti，用于单个令牌的吊销；没有 jti 的旧令牌为 0
+ */
+public record JwtPrincipal(Long userId, String email, String role, long tokenId, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.backend.auth;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -11,6 +13,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 
 /**
@@ -20,18 +23,25 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
     
+    /** 毫秒精度的签发时间（标准 iat 只到秒），用于与用户级吊销时间比较 */
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+    
     @Value("${jwt.secret}")
     private String secret;
     
-    @Value("${jwt.expiration}")
+    /** 访问令牌有效期（毫秒），访问令牌可由刷新令牌续期 */
+    @Value("${jwt.access-expiration:900000}")
     private Long expiration;
     
-    /**
-     * 获取签名密钥
-     */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /** 签名密钥和解析器只构建一次，线程安全 */
+    private SecretKey signingKey;
+    
+    private JwtParser parser;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
     
     /**
@@ -64,15 +74,18 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
     
+    /**
+     * 验签并解析token，签名无效、格式错误或已过期时抛出 JwtException
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+    
     /**
      * 从token中提取所有claims
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parseClaims(token);
     }
     
     /**
@@ -84,25 +97,35 @@ public class JwtUtil {
     }
     
     /**
-     * 为用户生成token
+     * 为用户生成访问令牌，jti 为随机的 long，用于单个令牌的吊销
      */
     public String generateToken(Long userId, String email, String role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("role", role);
-        return createToken(claims, email);
+        return createToken(claims, email, ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+    }
+    
+    /**
+     * 访问令牌有效期（毫秒）
+     */
+    public long getExpirationMillis() {
+        return expiration;
     }
     
     /**
      * 创建token
      */
-    private String createToken(Map<String, Object> claims, String subject) {
+    private String createToken(Map<String, Object> claims, String subject, long tokenId) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(claims)
+                .claim(ISSUED_AT_MILLIS_CLAIM, now)
+                .id(Long.toString(tokenId))
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey)
                 .compact();
     }
     
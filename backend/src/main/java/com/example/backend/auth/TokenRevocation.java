@@ -0,0 +1,45 @@
+package com.example.backend.auth;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 访问令牌吊销记录
+ * tokenId 为空时吊销该用户在 revokedAt 之前签发的全部访问令牌（修改密码、禁用账户），否则只吊销单个令牌（退出登录）；
+ * 访问令牌到期后记录即无意义，expiresAt 之后可删除。各实例定时读取新记录同步到内存
+ */
+@Entity
+@Table(name = "token_revocations", indexes = {
+        @Index(name = "idx_token_revocations_created_at", columnList = "created_at"),
+        @Index(name = "idx_token_revocations_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "token_id")
+    private Long tokenId;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
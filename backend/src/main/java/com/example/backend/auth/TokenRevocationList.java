@@ -0,0 +1,151 @@
+package com.example.backend.auth;
+
+import com.example.backend.common.LongBloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 访问令牌吊销列表（内存）
+ * 每个请求先查布隆过滤器，绝大多数令牌在这里即可判定未吊销，不加锁、不分配对象、不访问数据库；
+ * 过滤器判定“可能吊销”时再查精确集合。吊销记录持久化在 token_revocations 表，各实例定时增量同步，
+ * 本实例的吊销在事务提交后立即生效。记录在对应访问令牌全部过期后清除，过滤器定期按剩余记录重建
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    /** 用户级吊销：revokedAt（毫秒）及之前签发的令牌无效；expiresAt 为秒 */
+    private record UserRevocation(long revokedAt, long expiresAt) {
+    }
+
+    private record Filters(LongBloomFilter users, LongBloomFilter tokens) {
+    }
+
+    @Autowired
+    private TokenRevocationRepository repository;
+
+    /** 布隆过滤器的预计条目数，实际条目超出时重建会按实际数量扩容 */
+    @Value("${app.auth.revocation.expected-entries:100000}")
+    private int expectedEntries;
+
+    /** 增量同步回看时间，覆盖事务提交延迟和实例间的时钟偏差 */
+    @Value("${app.auth.revocation.settle:5s}")
+    private Duration settle;
+
+    private final ConcurrentHashMap<Long, UserRevocation> users = new ConcurrentHashMap<>();
+
+    /** 单个令牌吊销：tokenId -> 令牌过期时间（秒） */
+    private final ConcurrentHashMap<Long, Long> tokens = new ConcurrentHashMap<>();
+
+    private volatile Filters filters;
+
+    private LocalDateTime lastSync;
+
+    @PostConstruct
+    public void init() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            filters = newFilters(0);
+        }
+        repository.findByExpiresAtAfter(now).forEach(this::apply);
+        lastSync = now;
+    }
+
+    /**
+     * 令牌是否已吊销（用户级或单个令牌）
+     */
+    public boolean isRevoked(JwtPrincipal principal) {
+        Filters current = filters;
+        if (principal.userId() != null && current.users.mightContain(principal.userId())) {
+            UserRevocation revocation = users.get(principal.userId());
+            if (revocation != null && principal.issuedAt().toEpochMilli() <= revocation.revokedAt()) {
+                return true;
+            }
+        }
+        return principal.tokenId() != 0 && current.tokens.mightContain(principal.tokenId())
+                && tokens.containsKey(principal.tokenId());
+    }
+
+    /**
+     * 加入一条吊销记录（幂等）
+     */
+    public synchronized void apply(TokenRevocation revocation) {
+        long expiresAt = epochSecond(revocation.getExpiresAt());
+        if (revocation.getTokenId() != null) {
+            tokens.merge(revocation.getTokenId(), expiresAt, Math::max);
+            filters.tokens.add(revocation.getTokenId());
+        } else {
+            users.merge(revocation.getUserId(), new UserRevocation(epochMilli(revocation.getRevokedAt()), expiresAt),
+                    (a, b) -> a.revokedAt() >= b.revokedAt() ? a : b);
+            filters.users.add(revocation.getUserId());
+        }
+    }
+
+    /**
+     * 同步其他实例写入的吊销记录
+     */
+    @Scheduled(fixedDelayString = "${app.auth.revocation.poll-interval-ms:1000}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            repository.findByCreatedAtAfter(lastSync.minus(settle)).forEach(this::apply);
+            lastSync = now;
+        } catch (RuntimeException e) {
+            log.warn("令牌吊销记录同步失败，稍后重试: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 清除已过期的记录并重建布隆过滤器（布隆过滤器不支持删除）
+     */
+    @Scheduled(fixedDelayString = "${app.auth.revocation.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        long now = Instant.now().getEpochSecond();
+        users.values().removeIf(revocation -> revocation.expiresAt() < now);
+        tokens.values().removeIf(expiresAt -> expiresAt < now);
+
+        Filters rebuilt = newFilters(Math.max(users.size(), tokens.size()));
+        users.keySet().forEach(rebuilt.users::add);
+        tokens.keySet().forEach(rebuilt.tokens::add);
+        filters = rebuilt;
+    }
+
+    /**
+     * 删除已过期的吊销记录
+     */
+    @Scheduled(cron = "${app.auth.revocation.cleanup-cron:0 15 4 * * *}")
+    public void cleanup() {
+        int deleted = repository.deleteExpiredBefore(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("已删除 {} 条过期的令牌吊销记录", deleted);
+        }
+    }
+
+    private Filters newFilters(int entries) {
+        int capacity = Math.max(expectedEntries, entries * 2);
+        return new Filters(new LongBloomFilter(capacity, FALSE_POSITIVE_RATE),
+                new LongBloomFilter(capacity, FALSE_POSITIVE_RATE));
+    }
+
+    private static long epochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
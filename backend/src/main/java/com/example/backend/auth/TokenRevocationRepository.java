@@ -0,0 +1,33 @@
+package com.example.backend.auth;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 访问令牌吊销记录数据访问层
+ */
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    /**
+     * 启动时加载仍然有效的吊销记录
+     */
+    List<TokenRevocation> findByExpiresAtAfter(LocalDateTime now);
+
+    /**
+     * 增量同步：读取指定时间之后写入的吊销记录
+     */
+    List<TokenRevocation> findByCreatedAtAfter(LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt < :before")
+    int deleteExpiredBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,166 @@
+package com.example.backend.auth;
+
+import com.example.backend.auth.exception.InvalidTokenException;
+import com.example.backend.common.TransactionCallbacks;
+import com.example.backend.user.User;
+import com.example.backend.user.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * 令牌服务：签发访问令牌和刷新令牌，刷新令牌轮换，以及退出登录、修改密码、禁用账户时的吊销
+ */
+@Service
+@Transactional
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TokenRevocationRepository revocationRepository;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /** 刷新令牌有效期 */
+    @Value("${jwt.refresh-expiration:30d}")
+    private Duration refreshExpiration;
+
+    /**
+     * 登录成功后签发令牌对，开始一个新的刷新令牌 family
+     */
+    public IssuedTokens issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * 用刷新令牌换取新的令牌对，旧刷新令牌随即失效。
+     * 已使用或已吊销的刷新令牌再次出现视为泄露，吊销整个 family（另一方持有的令牌一并失效）
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public IssuedTokens refresh(String refreshToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHashForUpdate(hash(refreshToken))
+                .orElseThrow(() -> new InvalidTokenException("刷新令牌无效"));
+
+        if (token.getRevoked() || token.getUsedAt() != null) {
+            refreshTokenRepository.revokeFamily(token.getFamilyId());
+            log.warn("刷新令牌被重复使用，已吊销该登录会话，用户ID: {}", token.getUserId());
+            throw new InvalidTokenException("刷新令牌已失效，请重新登录");
+        }
+        if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new InvalidTokenException("刷新令牌已过期，请重新登录");
+        }
+
+        User user = userRepository.findById(token.getUserId())
+                .filter(User::getEnabled)
+                .orElse(null);
+        if (user == null) {
+            refreshTokenRepository.revokeFamily(token.getFamilyId());
+            throw new InvalidTokenException("账户不存在或已被禁用");
+        }
+
+        token.setUsedAt(LocalDateTime.now());
+        return issue(user, token.getFamilyId());
+    }
+
+    /**
+     * 退出登录：吊销刷新令牌所在的 family，以及当前访问令牌（可为空）
+     */
+    public void logout(String refreshToken, JwtPrincipal accessToken) {
+        refreshTokenRepository.findByTokenHashForUpdate(hash(refreshToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+        if (accessToken != null && accessToken.tokenId() != 0) {
+            revoke(accessToken.userId(), accessToken.tokenId(),
+                    LocalDateTime.ofInstant(accessToken.expiresAt(), ZoneId.systemDefault()));
+        }
+    }
+
+    /**
+     * 吊销用户的全部令牌（修改密码、禁用账户、删除账户），在调用方事务中执行
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeByUserId(userId);
+        // 此刻之前签发的访问令牌最晚在一个有效期后全部过期
+        revoke(userId, null, LocalDateTime.now().plus(Duration.ofMillis(jwtUtil.getExpirationMillis())));
+    }
+
+    /**
+     * 删除过期的刷新令牌
+     */
+    @Scheduled(cron = "${app.auth.refresh-token.cleanup-cron:0 0 4 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void cleanup() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("已删除 {} 个过期的刷新令牌", deleted);
+        }
+    }
+
+    private IssuedTokens issue(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setUserId(user.getId());
+        token.setTokenHash(hash(refreshToken));
+        token.setFamilyId(familyId);
+        token.setExpiresAt(LocalDateTime.now().plus(refreshExpiration));
+        token.setRevoked(false);
+        refreshTokenRepository.save(token);
+
+        String accessToken = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name());
+        return new IssuedTokens(accessToken, refreshToken, jwtUtil.getExpirationMillis() / 1000);
+    }
+
+    /**
+     * 写入吊销记录，事务提交后立即加入本实例的吊销列表（其他实例通过定时同步获得）
+     */
+    private void revoke(Long userId, Long tokenId, LocalDateTime expiresAt) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setUserId(userId);
+        revocation.setTokenId(tokenId);
+        revocation.setRevokedAt(LocalDateTime.now());
+        revocation.setExpiresAt(expiresAt);
+        TokenRevocation saved = revocationRepository.save(revocation);
+        TransactionCallbacks.afterCommit(() -> revocationList.apply(saved));
+    }
+
+    private static String hash(String refreshToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.backend.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * JWT 验证组件
+ * 每个 token 只验签、解析一次，得到的 JwtPrincipal 按 token 的 SHA-256 摘要缓存（不保留 token 原文），
+ * 条目在 token 过期或达到缓存时长时失效，取两者较早者；验证失败的 token 不缓存。
+ * 吊销检查在缓存之后进行，已缓存的令牌被吊销后下一个请求即失效
+ */
+@Component
+public class TokenVerifier {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    private final Cache<ByteBuffer, JwtPrincipal> cache;
+
+    public TokenVerifier(@Value("${app.auth.token-cache.maximum-size:100000}") long maximumSize,
+                         @Value("${app.auth.token-cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        long maxNanos = expireAfterWrite.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<ByteBuffer, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, JwtPrincipal principal, long currentTime) {
+                        long untilExpiry = Duration.between(Instant.now(), principal.expiresAt()).toNanos();
+                        return Math.max(0, Math.min(maxNanos, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, JwtPrincipal principal, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, JwtPrincipal principal, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 验证 token，签名无效、格式错误、已过期或已吊销时返回 null
+     */
+    public JwtPrincipal verify(String token) {
+        ByteBuffer key = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+        JwtPrincipal principal = cache.getIfPresent(key);
+        if (principal != null) {
+            return principal.isExpired(Instant.now()) || revocationList.isRevoked(principal) ? null : principal;
+        }
+
+        try {
+            Claims claims = jwtUtil.parseClaims(token);
+            if (claims.getExpiration() == null || claims.getIssuedAt() == null) {
+                return null;
+            }
+            // 没有毫秒签发时间的旧令牌按秒计，吊销同一秒内签发的旧令牌一律视为已吊销
+            Long issuedAtMillis = claims.get(JwtUtil.ISSUED_AT_MILLIS_CLAIM, Long.class);
+            Instant issuedAt = issuedAtMillis != null ? Instant.ofEpochMilli(issuedAtMillis)
+                    : claims.getIssuedAt().toInstant();
+            principal = new JwtPrincipal(claims.get("userId", Long.class), claims.getSubject(),
+                    claims.get("role", String.class), claims.getId() != null ? Long.parseLong(claims.getId()) : 0L,
+                    issuedAt, claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        cache.put(key, principal);
+        return revocationList.isRevoked(principal) ? null : principal;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.backend.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * 刷新令牌请求DTO（刷新、退出登录）
+ */
+@Data
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "刷新令牌不能为空")
+    private String refreshToken;
+}
@@ -0,0 +1,15 @@
+package com.example.backend.auth.exception;
+
+/**
+ * 令牌无效异常（刷新令牌不存在、已过期、已吊销或被重复使用）
+ */
+public class InvalidTokenException extends RuntimeException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
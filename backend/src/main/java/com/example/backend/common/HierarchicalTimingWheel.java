@@ -0,0 +1,167 @@
+package com.example.backend.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分层时间轮
+ * 第 0 层每格 tickMs，第 i 层每格 tickMs * wheelSize^i，层数按需增加；
+ * 添加和推进都是 O(1)（均摊），高层格子到期时整格下沉到低层，适合管理大量超时任务。
+ * 到期时间按格向上取整，元素不会早于其截止时间到期，最多晚一个 tick。
+ * 同一元素只保留最后一次添加的截止时间，被替换或移除的旧条目在所在格子推进时丢弃。线程安全
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+
+    /** levels.get(i)[slot] 为第 i 层的格子 */
+    private final List<List<Entry<T>>[]> levels = new ArrayList<>();
+
+    /** 当前时间（第 0 层的格号，即 时间 / tickMs） */
+    private long currentTick;
+
+    /** 每个元素当前有效的条目 */
+    private final Map<T, Entry<T>> live = new HashMap<>();
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long deadlineTick;
+        private boolean cancelled;
+
+        private Entry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMillis) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs 必须大于 0，wheelSize 至少为 2");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.currentTick = startMillis / tickMs;
+        addLevel();
+    }
+
+    /**
+     * 添加元素，已在时间轮中的元素改用新的截止时间；
+     * 截止时间已过（不晚于当前格）的元素直接返回 true，由调用方立即处理，不放入时间轮
+     */
+    public synchronized boolean add(T item, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMs - 1, tickMs);
+        if (deadlineTick <= currentTick) {
+            remove(item);
+            return true;
+        }
+        Entry<T> entry = new Entry<>(item, deadlineTick);
+        Entry<T> previous = live.put(item, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        place(entry);
+        return false;
+    }
+
+    /**
+     * 移除尚未到期的元素，元素不在时间轮中时返回 false
+     */
+    public synchronized boolean remove(T item) {
+        Entry<T> entry = live.remove(item);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    /**
+     * 推进到 nowMillis，返回期间到期的元素（按到期先后）
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMs;
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            // 先把到达边界的高层格子下沉，再收取第 0 层当前格
+            long span = 1;
+            for (int level = 1; level < levels.size(); level++) {
+                span *= wheelSize;
+                if (currentTick % span != 0) {
+                    break;
+                }
+                List<Entry<T>>[] buckets = levels.get(level);
+                int slot = (int) ((currentTick / span) % wheelSize);
+                List<Entry<T>> cascading = buckets[slot];
+                if (cascading != null) {
+                    buckets[slot] = null;
+                    for (Entry<T> entry : cascading) {
+                        if (entry.cancelled) {
+                            continue;
+                        }
+                        if (entry.deadlineTick <= currentTick) {
+                            expire(entry, expired);
+                        } else {
+                            place(entry);
+                        }
+                    }
+                }
+            }
+            List<Entry<T>>[] wheel = levels.get(0);
+            int slot = (int) (currentTick % wheelSize);
+            List<Entry<T>> due = wheel[slot];
+            if (due != null) {
+                wheel[slot] = null;
+                for (Entry<T> entry : due) {
+                    if (!entry.cancelled) {
+                        expire(entry, expired);
+                    }
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 时间轮中尚未到期的元素数
+     */
+    public synchronized int size() {
+        return live.size();
+    }
+
+    private void expire(Entry<T> entry, List<T> expired) {
+        live.remove(entry.item);
+        expired.add(entry.item);
+    }
+
+    /**
+     * 放入能容纳其剩余时间的最低一层：该层的格号差必须小于 wheelSize
+     */
+    private void place(Entry<T> entry) {
+        long span = 1;
+        for (int level = 0; ; level++) {
+            if (level == levels.size()) {
+                addLevel();
+            }
+            long deadlineSlot = entry.deadlineTick / span;
+            if (deadlineSlot - currentTick / span < wheelSize) {
+                List<Entry<T>>[] buckets = levels.get(level);
+                int slot = (int) (deadlineSlot % wheelSize);
+                if (buckets[slot] == null) {
+                    buckets[slot] = new ArrayList<>();
+                }
+                buckets[slot].add(entry);
+                return;
+            }
+            span *= wheelSize;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addLevel() {
+        levels.add(new List[wheelSize]);
+    }
+}
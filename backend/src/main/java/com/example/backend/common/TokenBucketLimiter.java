@@ -0,0 +1,130 @@
+package com.example.backend.common;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 按 key 的令牌桶限流（如每个 IP、每个账户）
+ * 每个桶只用一个 AtomicLong 表示：令牌数为 0 的（虚拟）时刻 zeroAt，当前令牌数 = min(容量, (now - zeroAt) / 补充间隔)，
+ * 取令牌是一次 CAS，不加锁（即 GCRA 的理论到达时间表示）。key 按哈希分到多个分片，每个分片限制条目数；
+ * 已补满的桶与不存在等价，可随时清除，分片满时先清除本分片的满桶，仍然满时不再跟踪新 key（放行）。
+ * key 可以是任意有 equals/hashCode 的对象，调用方可直接使用已有的 ID 对象，不必为每次请求拼接字符串
+ */
+public class TokenBucketLimiter<K> {
+
+    private static final int SHARDS = 16;
+
+    private final int capacity;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxKeysPerShard;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<K, AtomicLong>[] shards;
+
+    /**
+     * @param capacity       桶容量（允许的突发次数）
+     * @param refillInterval 每补充一个令牌的间隔
+     * @param maxKeys        最多跟踪的 key 数
+     */
+    public TokenBucketLimiter(int capacity, Duration refillInterval, int maxKeys) {
+        this(capacity, refillInterval, maxKeys, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    TokenBucketLimiter(int capacity, Duration refillInterval, int maxKeys, LongSupplier clock) {
+        if (capacity <= 0 || refillInterval.isNegative() || refillInterval.isZero() || maxKeys <= 0) {
+            throw new IllegalArgumentException("capacity、refillInterval、maxKeys 必须大于 0");
+        }
+        this.capacity = capacity;
+        this.intervalNanos = refillInterval.toNanos();
+        this.burstNanos = intervalNanos * capacity;
+        this.maxKeysPerShard = Math.max(1, maxKeys / SHARDS);
+        this.clock = clock;
+        this.shards = new ConcurrentHashMap[SHARDS];
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * 为 key 取一个令牌
+     *
+     * @return 0 表示放行，否则为下一个令牌可用前需要等待的纳秒数
+     */
+    public long tryAcquire(K key) {
+        long result = acquire(key);
+        return result >= 0 ? 0 : -result;
+    }
+
+    /**
+     * 为 key 取一个令牌，同时返回桶的状态（用于 RateLimit-* 响应头）
+     *
+     * @return 非负数表示放行，值为剩余令牌数；负数表示拒绝，绝对值为下一个令牌可用前需要等待的纳秒数
+     */
+    public long acquire(K key) {
+        long now = clock.getAsLong();
+        ConcurrentHashMap<K, AtomicLong> shard = shard(key);
+        AtomicLong bucket = shard.get(key);
+        if (bucket == null) {
+            if (shard.size() >= maxKeysPerShard) {
+                evictIdle(shard, now);
+                if (shard.size() >= maxKeysPerShard) {
+                    return capacity - 1;
+                }
+            }
+            bucket = shard.computeIfAbsent(key, k -> new AtomicLong(now - burstNanos));
+        }
+
+        while (true) {
+            long zeroAt = bucket.get();
+            // 超出容量的部分不累积
+            long next = Math.max(zeroAt, now - burstNanos) + intervalNanos;
+            if (next > now) {
+                return now - next;
+            }
+            if (bucket.compareAndSet(zeroAt, next)) {
+                return (now - next) / intervalNanos;
+            }
+        }
+    }
+
+    /**
+     * 清除已补满的桶
+     */
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        for (ConcurrentHashMap<K, AtomicLong> shard : shards) {
+            evictIdle(shard, now);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getRefillIntervalNanos() {
+        return intervalNanos;
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<K, AtomicLong> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * 与清除并发的取令牌可能落在已移除的桶上，该 key 最多多放行一次
+     */
+    private void evictIdle(ConcurrentHashMap<K, AtomicLong> shard, long now) {
+        shard.values().removeIf(bucket -> bucket.get() <= now - burstNanos);
+    }
+
+    private ConcurrentHashMap<K, AtomicLong> shard(K key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & (SHARDS - 1)];
+    }
+}
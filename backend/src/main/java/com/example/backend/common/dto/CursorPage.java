@@ -0,0 +1,48 @@
+package com.example.backend.common.dto;
+
+import com.example.backend.common.KeysetCursor;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 游标分页响应DTO
+ * 不统计总数，只返回当前页内容和下一页游标
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    /** 单页最大条数 */
+    public static final int MAX_SIZE = 100;
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    /**
+     * 将单页条数限制在 1 ~ MAX_SIZE 之间
+     */
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * 由多查询一条（size + 1）的结果构造分页响应，多出的一条只用于判断是否还有下一页
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size,
+                                          Function<E, KeysetCursor> cursorOf,
+                                          Function<E, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        List<T> content = page.stream().map(mapper).collect(Collectors.toList());
+        return new CursorPage<>(content, content.size(), hasNext, nextCursor);
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.backend.config;
+
+import com.example.backend.auth.JwtAuthenticationFilter;
+import com.example.backend.auth.JwtPrincipal;
+import com.example.backend.auth.TokenVerifier;
+import com.example.backend.common.TokenBucketLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 全局限流过滤器，位于 JwtAuthenticationFilter 之前，被拒绝的请求不验签、不占用数据库连接。
+ * 每个 IP 先受总上限约束，再按第一条匹配的路由策略限流：令牌验证通过的请求按用户 ID 计数，
+ * 匿名请求以及令牌无效（伪造、过期、已吊销）的请求按 IP 计数，计数桶的数量不随请求携带的令牌增长。
+ * 验证结果保存在请求属性中，JwtAuthenticationFilter 不再重复验证。
+ * 计数使用 TokenBucketLimiter（单个 AtomicLong + CAS，分片、有上限、空闲清除），用户直接以 ID 对象为 key。
+ * 响应带 RateLimit-Limit / RateLimit-Remaining / RateLimit-Reset / RateLimit-Policy 头，拒绝时返回 429 和 Retry-After；
+ * 头的值取自预先生成的数字字符串，放行路径上不分配新的字符串
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LIMIT_HEADER = "RateLimit-Limit";
+    private static final String REMAINING_HEADER = "RateLimit-Remaining";
+    private static final String RESET_HEADER = "RateLimit-Reset";
+    private static final String POLICY_HEADER = "RateLimit-Policy";
+
+    private static final String REJECTED_BODY = "{\"message\":\"请求过于频繁，请稍后重试\"}";
+
+    /** 预先生成的 0 ~ 4095 的十进制字符串，覆盖常见的剩余次数和重置秒数 */
+    private static final String[] DECIMALS = new String[4096];
+
+    static {
+        for (int i = 0; i < DECIMALS.length; i++) {
+            DECIMALS[i] = String.valueOf(i);
+        }
+    }
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private TokenVerifier tokenVerifier;
+
+    private Route[] routes;
+    private Limiter ipCeiling;
+
+    /**
+     * 按策略配置的一个计数器，响应头中的固定部分预先生成
+     */
+    private static final class Limiter {
+
+        /** key 为客户端 IP（String）或用户 ID（Long），两种类型互不相等，不会混用同一个桶 */
+        final TokenBucketLimiter<Object> buckets;
+        final String limit;
+        final String policy;
+
+        Limiter(String name, RateLimitProperties.Limit limit, int maxKeys) {
+            this.buckets = new TokenBucketLimiter<>(limit.getCapacity(), limit.getRefillInterval(), maxKeys);
+            this.limit = String.valueOf(limit.getCapacity());
+            long windowSeconds = Math.max(1, limit.getRefillInterval().multipliedBy(limit.getCapacity()).toSeconds());
+            this.policy = limit.getCapacity() + ";w=" + windowSeconds + ";name=\"" + name + "\"";
+        }
+    }
+
+    private static final class Route {
+
+        final String path;
+        final String[] methods;
+        final Limiter user;
+        final Limiter anonymous;
+
+        Route(RateLimitProperties.Policy policy, int maxKeys) {
+            this.path = policy.getPath();
+            this.methods = policy.getMethods().stream().map(method -> method.toUpperCase(Locale.ROOT)).toArray(String[]::new);
+            this.anonymous = policy.getAnonymous() == null ? null
+                    : new Limiter(policy.getName(), policy.getAnonymous(), maxKeys);
+            // 未配置按用户限流时，携带令牌的请求同样按 IP 计数
+            this.user = policy.getUser() == null ? anonymous
+                    : new Limiter(policy.getName(), policy.getUser(), maxKeys);
+        }
+
+        boolean matches(String method, String uri, int offset) {
+            if (!uri.startsWith(path, offset)) {
+                return false;
+            }
+            if (methods.length == 0) {
+                return true;
+            }
+            for (String allowed : methods) {
+                if (allowed.equals(method)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        int maxKeys = properties.getMaxTrackedKeys();
+        ipCeiling = new Limiter("ip-ceiling", properties.getIpCeiling(), maxKeys);
+        routes = properties.getPolicies().stream()
+                .map(policy -> new Route(policy, maxKeys))
+                .toArray(Route[]::new);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String clientIp = request.getRemoteAddr();
+        long ceiling = ipCeiling.buckets.acquire(clientIp);
+        if (ceiling < 0) {
+            reject(response, ipCeiling, ceiling);
+            return;
+        }
+
+        Route route = match(request);
+        Limiter limiter;
+        Object key;
+        if (route == null) {
+            limiter = ipCeiling;
+            key = null;
+        } else {
+            // 只有单独配置了按用户限流的路由才需要验证令牌
+            JwtPrincipal principal = route.user != route.anonymous ? authenticate(request) : null;
+            limiter = principal != null ? route.user : route.anonymous;
+            key = principal != null ? principal.userId() : clientIp;
+        }
+
+        long result = ceiling;
+        if (limiter != null && key != null) {
+            result = limiter.buckets.acquire(key);
+            if (result < 0) {
+                reject(response, limiter, result);
+                return;
+            }
+        }
+        if (limiter != null) {
+            writeHeaders(response, limiter, result);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * 清除已补满的计数桶
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        ipCeiling.buckets.evictIdle();
+        for (Route route : routes) {
+            if (route.anonymous != null) {
+                route.anonymous.buckets.evictIdle();
+            }
+            if (route.user != null && route.user != route.anonymous) {
+                route.user.buckets.evictIdle();
+            }
+        }
+    }
+
+    /**
+     * 验证 Bearer 令牌，无令牌或令牌无效时返回 null
+     */
+    private JwtPrincipal authenticate(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        JwtPrincipal principal = tokenVerifier.verify(authHeader.substring(7));
+        if (principal == null || principal.userId() == null) {
+            return null;
+        }
+        request.setAttribute(JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, principal);
+        return principal;
+    }
+
+    private Route match(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        int offset = request.getContextPath().length();
+        String method = request.getMethod();
+        for (Route route : routes) {
+            if (route.matches(method, uri, offset)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private void writeHeaders(HttpServletResponse response, Limiter limiter, long remaining) {
+        long interval = limiter.buckets.getRefillIntervalNanos();
+        // 剩余名额恢复到桶容量所需的时间
+        long resetNanos = (limiter.buckets.getCapacity() - remaining) * interval;
+        response.setHeader(LIMIT_HEADER, limiter.limit);
+        response.setHeader(REMAINING_HEADER, decimal(remaining));
+        response.setHeader(RESET_HEADER, decimal(ceilSeconds(resetNanos)));
+        response.setHeader(POLICY_HEADER, limiter.policy);
+    }
+
+    private void reject(HttpServletResponse response, Limiter limiter, long result) throws IOException {
+        long waitNanos = -result;
+        long resetNanos = waitNanos + (limiter.buckets.getCapacity() - 1) * limiter.buckets.getRefillIntervalNanos();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(LIMIT_HEADER, limiter.limit);
+        response.setHeader(REMAINING_HEADER, "0");
+        response.setHeader(RESET_HEADER, decimal(ceilSeconds(resetNanos)));
+        response.setHeader(POLICY_HEADER, limiter.policy);
+        response.setHeader(HttpHeaders.RETRY_AFTER, decimal(ceilSeconds(waitNanos)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write(REJECTED_BODY);
+    }
+
+    private static String decimal(long value) {
+        return value >= 0 && value < DECIMALS.length ? DECIMALS[(int) value] : String.valueOf(value);
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
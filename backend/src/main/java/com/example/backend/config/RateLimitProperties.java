@@ -0,0 +1,69 @@
+package com.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 全局限流配置（app.rate-limit）
+ * 按路由配置策略，请求按顺序匹配第一条路径前缀（和方法）相符的策略；未匹配任何策略的请求不限流
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** 每个限流器最多跟踪的 key 数（IP 或访问令牌） */
+    private int maxTrackedKeys = 100_000;
+
+    /**
+     * 每个 IP 的总上限，对所有请求生效（包括携带令牌的请求），
+     * 防止伪造大量不同令牌绕过按用户的限流
+     */
+    private Limit ipCeiling = new Limit(600, Duration.ofMillis(20));
+
+    private List<Policy> policies = new ArrayList<>();
+
+    @Data
+    public static class Policy {
+
+        /** 策略名，写入 RateLimit-Policy 响应头 */
+        private String name;
+
+        /** 路径前缀（不含 context-path），如 /products/search */
+        private String path;
+
+        /** 限定的 HTTP 方法，为空表示全部方法 */
+        private List<String> methods = new ArrayList<>();
+
+        /** 携带访问令牌的请求按令牌（用户）限流 */
+        private Limit user;
+
+        /** 匿名请求按 IP 限流 */
+        private Limit anonymous;
+    }
+
+    @Data
+    public static class Limit {
+
+        /** 桶容量（允许的突发请求数） */
+        private int capacity;
+
+        /** 每恢复一个请求名额的间隔 */
+        private Duration refillInterval;
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, Duration refillInterval) {
+            this.capacity = capacity;
+            this.refillInterval = refillInterval;
+        }
+    }
+}
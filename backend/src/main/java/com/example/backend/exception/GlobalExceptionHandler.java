@@ -1,9 +1,16 @@
 package com.example.backend.exception;
 
+import com.example.backend.analytics.exception.InvalidDateRangeException;
+import com.example.backend.analytics.exception.SalesRollupRebuildException;
+import com.example.backend.auth.exception.InvalidTokenException;
+import com.example.backend.common.exception.InvalidCursorException;
+import com.example.backend.order.exception.IdempotencyConflictException;
+import com.example.backend.order.exception.OrderAdmissionException;
 import com.example.backend.order.exception.OrderCreationException;
 import com.example.backend.order.exception.OrderNotFoundException;
 import com.example.backend.order.exception.OrderStatusException;
 import com.example.backend.order.exception.PaymentProcessingException;
+import com.example.backend.product.exception.FlashSaleException;
 import com.example.backend.product.exception.InsufficientStockException;
 import com.example.backend.product.exception.ProductNotFoundException;
 import com.example.backend.product.exception.UnauthorizedProductAccessException;
@@ -56,6 +63,16 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
     }
     
+    /**
+     * 处理令牌无效异常
+     */
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidTokenException(InvalidTokenException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    }
+    
     /**
      * 处理商品未找到异常
      */
@@ -86,6 +103,16 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * 处理秒杀活动冲突异常
+     */
+    @ExceptionHandler(FlashSaleException.class)
+    public ResponseEntity<Map<String, String>> handleFlashSaleException(FlashSaleException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     /**
      * 处理订单未找到异常
      */
@@ -106,6 +133,26 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * 处理下单排队已满异常
+     */
+    @ExceptionHandler(OrderAdmissionException.class)
+    public ResponseEntity<Map<String, String>> handleOrderAdmissionException(OrderAdmissionException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(error);
+    }
+
+    /**
+     * 处理幂等键冲突异常
+     */
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<Map<String, String>> handleIdempotencyConflictException(IdempotencyConflictException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     /**
      * 处理订单状态异常
      */
@@ -126,6 +173,36 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
     
+    /**
+     * 处理分页游标无效异常
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursorException(InvalidCursorException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+    
+    /**
+     * 处理查询日期范围无效异常
+     */
+    @ExceptionHandler(InvalidDateRangeException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidDateRangeException(InvalidDateRangeException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    /**
+     * 处理销售汇总重建冲突异常
+     */
+    @ExceptionHandler(SalesRollupRebuildException.class)
+    public ResponseEntity<Map<String, String>> handleSalesRollupRebuildException(SalesRollupRebuildException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     /**
      * 处理参数验证异常
      */
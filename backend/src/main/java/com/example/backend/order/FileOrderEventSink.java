@@ -0,0 +1,70 @@
+package com.example.backend.order;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 本地文件下游：每个事件追加一行 JSON（JSON Lines），用于对接外部系统前的联调和导出。
+ * 配置 app.outbox.file-sink.path 后启用
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.file-sink.path")
+public class FileOrderEventSink implements OrderEventSink {
+
+    private final Path path;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public FileOrderEventSink(@Value("${app.outbox.file-sink.path}") String path) {
+        this.path = Path.of(path);
+    }
+
+    FileOrderEventSink(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void deliver(List<OrderOutboxEvent> events) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (OrderOutboxEvent event : events) {
+                    ObjectNode line = objectMapper.createObjectNode();
+                    line.put("id", event.getId());
+                    line.put("orderId", event.getOrderId());
+                    line.put("customerId", event.getCustomerId());
+                    line.put("type", event.getEventType().name());
+                    line.put("occurredAt", event.getCreatedAt().toString());
+                    line.set("payload", objectMapper.readTree(event.getPayload()));
+                    writer.write(objectMapper.writeValueAsString(line));
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入订单事件文件失败: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.backend.order;
+
+import com.example.backend.order.dto.CreateOrderRequest;
+import com.example.backend.order.dto.OrderItemRequest;
+import com.example.backend.order.dto.OrderResponse;
+import com.example.backend.order.exception.OrderAdmissionException;
+import com.example.backend.order.exception.OrderCreationException;
+import com.example.backend.product.FlashSaleStock;
+import com.example.backend.product.exception.InsufficientStockException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 下单入口：普通订单直接创建；包含秒杀商品的订单进入该商品的有界队列，
+ * 由单线程逐个处理（每个秒杀商品最多占用一个数据库连接），
+ * 已售罄或队列已满的请求立即拒绝，不进入数据库
+ */
+@Component
+public class FlashSaleAdmission {
+
+    private static final String SOLD_OUT_MESSAGE = "商品已售罄";
+    private static final String BUSY_MESSAGE = "抢购人数过多，请稍后重试";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private FlashSaleStock flashSaleStock;
+
+    /** 每个秒杀商品排队的最大请求数 */
+    @Value("${app.flash-sale.queue-capacity:200}")
+    private int queueCapacity;
+
+    /** 请求排队超过该时间后不再处理，直接返回重试提示 */
+    @Value("${app.flash-sale.admission-timeout-ms:3000}")
+    private long admissionTimeoutMs;
+
+    private final ConcurrentHashMap<Long, ThreadPoolExecutor> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * 创建订单（秒杀商品经排队处理）；idempotencyKey 随订单在同一事务中记录
+     */
+    public OrderResponse createOrder(CreateOrderRequest request, String idempotencyKey) {
+        Long productId = null;
+        int quantity = 0;
+        if (request.getItems() != null) {
+            for (OrderItemRequest item : request.getItems()) {
+                if (!flashSaleStock.isActive(item.getProductId())) {
+                    continue;
+                }
+                if (productId != null && !productId.equals(item.getProductId())) {
+                    throw new OrderCreationException("秒杀商品需单独下单");
+                }
+                productId = item.getProductId();
+                quantity += item.getQuantity();
+            }
+        }
+        if (productId == null) {
+            return orderService.createOrder(request, idempotencyKey);
+        }
+
+        if (flashSaleStock.isSoldOut(productId, quantity)) {
+            throw new InsufficientStockException(SOLD_OUT_MESSAGE);
+        }
+
+        Long flashSaleProductId = productId;
+        int flashSaleQuantity = quantity;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(admissionTimeoutMs);
+        CompletableFuture<OrderResponse> result;
+        try {
+            result = CompletableFuture.supplyAsync(
+                    () -> admit(request, idempotencyKey, flashSaleProductId, flashSaleQuantity, deadline),
+                    lane(flashSaleProductId));
+        } catch (RejectedExecutionException e) {
+            throw new OrderAdmissionException(BUSY_MESSAGE, e);
+        }
+
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 在商品的单线程队列中执行：预留内存库存 -> 创建订单 -> 成交计入待落库数量
+     */
+    private OrderResponse admit(CreateOrderRequest request, String idempotencyKey, Long productId, int quantity,
+                                long deadline) {
+        if (System.nanoTime() > deadline) {
+            throw new OrderAdmissionException(BUSY_MESSAGE);
+        }
+        if (!flashSaleStock.isActive(productId)) {
+            // 排队期间秒杀已结束，按普通订单处理
+            return orderService.createOrder(request, idempotencyKey);
+        }
+        if (!flashSaleStock.tryAcquire(productId, quantity)) {
+            throw new InsufficientStockException(SOLD_OUT_MESSAGE);
+        }
+
+        OrderResponse order;
+        try {
+            order = orderService.createFlashSaleOrder(request, productId, idempotencyKey);
+        } catch (RuntimeException e) {
+            flashSaleStock.release(productId, quantity);
+            throw e;
+        }
+        flashSaleStock.confirm(productId, quantity);
+        return order;
+    }
+
+    private ThreadPoolExecutor lane(Long productId) {
+        return lanes.computeIfAbsent(productId, id -> {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "flash-sale-" + id);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            // 活动结束后空闲线程自动退出
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor executor : lanes.values()) {
+            executor.shutdown();
+        }
+        for (ThreadPoolExecutor executor : lanes.values()) {
+            executor.awaitTermination(admissionTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.backend.order;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 订单、订单项主键的号段分配表
+ * 两张表原先使用自增主键（IDENTITY），Hibernate 必须逐条执行 INSERT 才能拿到主键，无法批量写入；
+ * 改为 @TableGenerator 后每个实例一次从 id_generators 领取 allocationSize 个ID，插入在 flush 时合并为批次。
+ * 启动时把号段起点推进到现有最大ID之后，避免与自增阶段写入的历史数据冲突
+ */
+@Component
+public class IdAllocation {
+
+    public static final String TABLE = "id_generators";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+
+    /** 每次领取的号段大小，同时作为单次 flush 内可连续分配的ID数 */
+    public static final int ORDER_ALLOCATION_SIZE = 50;
+    public static final int ORDER_ITEM_ALLOCATION_SIZE = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(IdAllocation.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** 确保在 Hibernate 完成建表（ddl-auto）之后再初始化号段 */
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void seed() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (" + NAME_COLUMN + " VARCHAR(255) NOT NULL, " +
+                VALUE_COLUMN + " BIGINT, PRIMARY KEY (" + NAME_COLUMN + "))");
+        seed("orders", "orders", ORDER_ALLOCATION_SIZE);
+        seed("order_items", "order_items", ORDER_ITEM_ALLOCATION_SIZE);
+    }
+
+    /**
+     * 号段值不超过 MAX(id) + allocationSize 时推进到其后；无论使用 pooled 还是 pooled-lo 优化器，
+     * 下一个号段都不会与已有ID重叠
+     */
+    private void seed(String name, String table, int allocationSize) {
+        String floor = "(SELECT COALESCE(MAX(id), 0) + " + (allocationSize + 1) + " FROM " + table + ")";
+        int advanced = jdbcTemplate.update("UPDATE " + TABLE + " SET " + VALUE_COLUMN + " = " + floor +
+                " WHERE " + NAME_COLUMN + " = ? AND " + VALUE_COLUMN + " < " + floor, name);
+        if (advanced > 0) {
+            log.info("已将 {} 主键号段推进到现有最大ID之后", name);
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO " + TABLE + " (" + NAME_COLUMN + ", " + VALUE_COLUMN + ") " +
+                    "SELECT ?, COALESCE(MAX(id), 0) + " + (allocationSize + 1) + " FROM " + table +
+                    " WHERE NOT EXISTS (SELECT 1 FROM " + TABLE + " WHERE " + NAME_COLUMN + " = ?)", name, name);
+        } catch (DuplicateKeyException e) {
+            // 其他实例同时启动并已写入号段
+        }
+    }
+}
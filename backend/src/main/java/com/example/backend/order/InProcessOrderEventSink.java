@@ -0,0 +1,27 @@
+package com.example.backend.order;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 进程内下游：把发件箱事件作为 Spring 事件发布，应用内的 @EventListener(OrderOutboxEvent) 同步处理
+ */
+@Component
+public class InProcessOrderEventSink implements OrderEventSink {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public String name() {
+        return "in-process";
+    }
+
+    @Override
+    public void deliver(List<OrderOutboxEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
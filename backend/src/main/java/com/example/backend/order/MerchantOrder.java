@@ -0,0 +1,43 @@
+package com.example.backend.order;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 商户-订单关联（冗余订单日期和状态）
+ * 一个订单对每个涉及的商户一行，商户订单列表直接在覆盖索引上定位和排序，无需连接 order_items
+ */
+@Entity
+@Table(name = "merchant_orders",
+        uniqueConstraints = @UniqueConstraint(name = "uk_merchant_order", columnNames = {"merchant_id", "order_id"}),
+        indexes = {
+                @Index(name = "idx_merchant_orders_date", columnList = "merchant_id, order_date, order_id"),
+                @Index(name = "idx_merchant_orders_status_date", columnList = "merchant_id, status, order_date, order_id"),
+                @Index(name = "idx_merchant_orders_order_id", columnList = "order_id")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerchantOrder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "merchant_id", nullable = false)
+    private Long merchantId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private OrderStatus status;
+}
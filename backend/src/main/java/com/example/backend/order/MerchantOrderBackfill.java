@@ -0,0 +1,39 @@
+package com.example.backend.order;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * merchant_orders 历史数据回填
+ * 关联表上线前的订单 ID 都小于表中最小的 order_id，启动时只回填这部分订单；
+ * 回填完成后每次启动只做一次 MIN 查询和一个空范围的插入
+ */
+@Component
+public class MerchantOrderBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(MerchantOrderBackfill.class);
+
+    private static final String BACKFILL_SQL =
+            "INSERT INTO merchant_orders (merchant_id, order_id, order_date, status) " +
+            "SELECT DISTINCT i.merchant_id, o.id, o.order_date, o.status " +
+            "FROM orders o JOIN order_items i ON i.order_id = o.id " +
+            "WHERE o.id < ? AND NOT EXISTS " +
+            "(SELECT 1 FROM merchant_orders mo WHERE mo.merchant_id = i.merchant_id AND mo.order_id = o.id)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Long minOrderId = jdbcTemplate.queryForObject("SELECT MIN(order_id) FROM merchant_orders", Long.class);
+        int inserted = jdbcTemplate.update(BACKFILL_SQL, minOrderId != null ? minOrderId : Long.MAX_VALUE);
+        if (inserted > 0) {
+            log.info("已回填 {} 条商户订单关联", inserted);
+        }
+    }
+}
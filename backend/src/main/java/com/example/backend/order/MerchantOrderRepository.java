@@ -0,0 +1,57 @@
+package com.example.backend.order;
+
+import com.example.backend.order.dto.OrderSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 商户-订单关联数据访问层
+ */
+@Repository
+public interface MerchantOrderRepository extends JpaRepository<MerchantOrder, Long> {
+
+    /**
+     * 订单列表项：在覆盖索引（merchant_id, order_date, order_id）上按商户分页后连接订单表，一条查询得到列表内容
+     */
+    @Query(value = "SELECT " + OrderRepository.SUMMARY + " FROM MerchantOrder mo JOIN Order o ON o.id = mo.orderId " +
+            "WHERE mo.merchantId = :merchantId",
+            countQuery = "SELECT COUNT(mo) FROM MerchantOrder mo WHERE mo.merchantId = :merchantId")
+    Page<OrderSummary> findSummaries(@Param("merchantId") Long merchantId, Pageable pageable);
+
+    /**
+     * 订单列表项：按商户和订单状态分页（覆盖索引 merchant_id, status, order_date, order_id）
+     */
+    @Query(value = "SELECT " + OrderRepository.SUMMARY + " FROM MerchantOrder mo JOIN Order o ON o.id = mo.orderId " +
+            "WHERE mo.merchantId = :merchantId AND mo.status = :status",
+            countQuery = "SELECT COUNT(mo) FROM MerchantOrder mo WHERE mo.merchantId = :merchantId AND mo.status = :status")
+    Page<OrderSummary> findSummaries(@Param("merchantId") Long merchantId, @Param("status") OrderStatus status,
+                                     Pageable pageable);
+
+    /**
+     * 查询订单涉及的商户，返回 (订单ID, 商户ID)
+     */
+    @Query("SELECT mo.orderId, mo.merchantId FROM MerchantOrder mo WHERE mo.orderId IN :orderIds")
+    List<Object[]> findMerchantIdsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * 同步订单状态
+     */
+    @Modifying
+    @Query("UPDATE MerchantOrder mo SET mo.status = :status WHERE mo.orderId IN :orderIds")
+    int updateStatus(@Param("orderIds") Collection<Long> orderIds, @Param("status") OrderStatus status);
+
+    /**
+     * 删除订单的商户关联
+     */
+    @Modifying
+    @Query("DELETE FROM MerchantOrder mo WHERE mo.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+}
@@ -21,15 +21,20 @@ import java.util.List;
         @Index(name = "idx_order_number", columnList = "order_number", unique = true),
         @Index(name = "idx_user_id", columnList = "user_id"),
         @Index(name = "idx_status", columnList = "status"),
-        @Index(name = "idx_payment_status", columnList = "payment_status")
+        @Index(name = "idx_payment_status", columnList = "payment_status"),
+        @Index(name = "idx_order_date_id", columnList = "order_date, id")
 })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
 
+    /** 主键由 id_generators 表按段分配（pooled），不依赖自增列，插入可合并为 JDBC 批次 */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_id")
+    @TableGenerator(name = "order_id", table = IdAllocation.TABLE, pkColumnName = IdAllocation.NAME_COLUMN,
+            valueColumnName = IdAllocation.VALUE_COLUMN, pkColumnValue = "orders",
+            allocationSize = IdAllocation.ORDER_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "order_number", nullable = false, unique = true, length = 40)
@@ -109,6 +114,10 @@ public class Order {
     @Column(name = "payment_date")
     private LocalDateTime paymentDate;
 
+    /** 支付失败后重新开始计算支付时限的时间，为空时从下单时间起算 */
+    @Column(name = "payment_pending_since")
+    private LocalDateTime paymentPendingSince;
+
     @Column(name = "shipped_date")
     private LocalDateTime shippedDate;
 
@@ -1,5 +1,7 @@
 package com.example.backend.order;
 
+import com.example.backend.auth.JwtAuthenticationFilter;
+import com.example.backend.auth.JwtPrincipal;
 import com.example.backend.order.dto.*;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,10 +9,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
 
 /**
  * 订单控制器
@@ -23,12 +34,26 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private OrderEventHub orderEventHub;
+
+    @Autowired
+    private OrderOutboxRelay orderOutboxRelay;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
     /**
-     * 创建订单
+     * 创建订单（支持 Idempotency-Key 请求头，重试时返回原订单）
      */
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        OrderResponse order = orderService.createOrder(request);
+    public ResponseEntity<OrderResponse> createOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody CreateOrderRequest request) {
+        OrderResponse order = orderIdempotencyService.createOrder(idempotencyKey, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(order);
     }
 
@@ -48,11 +73,48 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrderByNumber(orderNumber));
     }
 
+    /**
+     * 订阅用户订单状态变更（SSE），仅限本人或管理员
+     */
+    @GetMapping(value = "/stream/user/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamUserOrders(
+            @PathVariable Long userId,
+            @RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, required = false) JwtPrincipal principal) {
+        HttpStatus denied = checkStreamAccess(principal, userId);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+        return ResponseEntity.ok(orderEventHub.subscribeCustomer(userId));
+    }
+
+    /**
+     * 订阅商户订单状态变更（SSE），仅限该商户本人或管理员
+     */
+    @GetMapping(value = "/stream/merchant/{merchantId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamMerchantOrders(
+            @PathVariable Long merchantId,
+            @RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, required = false) JwtPrincipal principal) {
+        HttpStatus denied = checkStreamAccess(principal, merchantId);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+        return ResponseEntity.ok(orderEventHub.subscribeMerchant(merchantId));
+    }
+
+    /**
+     * 订单事件发件箱投递指标（仅管理员）
+     */
+    @GetMapping("/outbox/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getOutboxStats() {
+        return ResponseEntity.ok(orderOutboxRelay.stats());
+    }
+
     /**
      * 获取用户订单（分页）
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<Page<OrderResponse>> getOrdersByUser(
+    public ResponseEntity<Page<OrderSummary>> getOrdersByUser(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
@@ -61,7 +123,7 @@ public class OrderController {
 
         Sort sort = sortDir.equalsIgnoreCase("ASC") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<OrderResponse> orders = orderService.getOrdersByUser(userId, pageable);
+        Page<OrderSummary> orders = orderService.getOrdersByUser(userId, pageable);
         return ResponseEntity.ok(orders);
     }
 
@@ -69,8 +131,9 @@ public class OrderController {
      * 获取商户订单（分页）
      */
     @GetMapping("/merchant/{merchantId}")
-    public ResponseEntity<Page<OrderResponse>> getOrdersByMerchant(
+    public ResponseEntity<Page<OrderSummary>> getOrdersByMerchant(
             @PathVariable Long merchantId,
+            @RequestParam(required = false) OrderStatus status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "orderDate") String sortBy,
@@ -78,30 +141,56 @@ public class OrderController {
 
         Sort sort = sortDir.equalsIgnoreCase("ASC") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<OrderResponse> orders = orderService.getOrdersByMerchant(merchantId, pageable);
+        Page<OrderSummary> orders = orderService.getOrdersByMerchant(merchantId, status, pageable);
         return ResponseEntity.ok(orders);
     }
 
     /**
      * 获取全部订单（分页）
+     * 传入 cursor 参数（首页传空值）时切换为游标分页，按下单时间倒序，忽略 page/sortBy/sortDir
      */
     @GetMapping
-    public ResponseEntity<Page<OrderResponse>> getAllOrders(
+    public ResponseEntity<?> getAllOrders(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "orderDate") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDir) {
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(required = false) String cursor) {
+
+        if (cursor != null) {
+            return ResponseEntity.ok(orderService.getAllOrders(cursor, size));
+        }
 
         Sort sort = sortDir.equalsIgnoreCase("ASC") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
         return ResponseEntity.ok(orderService.getAllOrders(pageable));
     }
 
+    /**
+     * 流式导出订单 CSV（仅管理员，财务对账用）；日期为下单日期，包含两端，格式 yyyy-MM-dd
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) PaymentStatus paymentStatus,
+            @RequestParam(required = false) Long merchantId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        orderExportService.checkRange(from, to);
+        StreamingResponseBody body = outputStream ->
+                orderExportService.exportCsv(status, paymentStatus, merchantId, from, to, outputStream);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders-" + LocalDate.now() + ".csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
+
     /**
      * 根据状态获取订单
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<Page<OrderResponse>> getOrdersByStatus(
+    public ResponseEntity<Page<OrderSummary>> getOrdersByStatus(
             @PathVariable OrderStatus status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
@@ -120,6 +209,15 @@ public class OrderController {
         return ResponseEntity.ok(orderService.updateOrderStatus(id, request));
     }
 
+    /**
+     * 批量更新订单状态（逐单返回成功或失败，单个订单失败不影响其他订单）
+     */
+    @PutMapping("/status")
+    public ResponseEntity<BulkUpdateOrderStatusResponse> updateOrderStatuses(
+            @Valid @RequestBody BulkUpdateOrderStatusRequest request) {
+        return ResponseEntity.ok(orderService.updateOrderStatuses(request.getUpdates()));
+    }
+
     /**
      * 更新支付状态
      */
@@ -149,5 +247,18 @@ public class OrderController {
         orderService.deleteOrder(id);
         return ResponseEntity.noContent().build();
     }
-}
 
+    /**
+     * 订阅推送的是长连接，在建立前校验：未登录返回 401，非本人且非管理员返回 403，通过返回 null
+     * （错误时不返回消息体，事件流请求无法协商 JSON 错误响应）
+     */
+    private static HttpStatus checkStreamAccess(JwtPrincipal principal, Long ownerId) {
+        if (principal == null) {
+            return HttpStatus.UNAUTHORIZED;
+        }
+        if (!ownerId.equals(principal.userId()) && !"ADMIN".equals(principal.role())) {
+            return HttpStatus.FORBIDDEN;
+        }
+        return null;
+    }
+}
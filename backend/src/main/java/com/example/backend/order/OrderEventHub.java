@@ -0,0 +1,212 @@
+package com.example.backend.order;
+
+import com.example.backend.order.dto.OrderStatusChange;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 订单状态变更推送中心（SSE）
+ * 每个连接是一个异步 SseEmitter，空闲连接不占用线程；事件先放入订阅者的有界缓冲区，
+ * 由少量共享线程依次写出。缓冲区写满说明客户端消费过慢，直接断开该连接（客户端重连后重新拉取订单）
+ */
+@Component
+public class OrderEventHub {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventHub.class);
+
+    static final String EVENT_NAME = "order-status";
+
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final ExecutorService dispatcher;
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> customers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Subscriber>> merchants = new ConcurrentHashMap<>();
+
+    /** 当前连接数 */
+    private final AtomicInteger connections = new AtomicInteger();
+
+    public OrderEventHub(
+            @Value("${app.order.events.buffer-size:32}") int bufferSize,
+            @Value("${app.order.events.timeout:30m}") Duration timeout,
+            @Value("${app.order.events.dispatch-threads:2}") int dispatchThreads) {
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeout.toMillis();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-events-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 订阅用户自己订单的状态变更
+     */
+    public SseEmitter subscribeCustomer(Long customerId) {
+        return subscribeCustomer(customerId, new SseEmitter(timeoutMs));
+    }
+
+    /**
+     * 订阅包含商户商品的订单的状态变更
+     */
+    public SseEmitter subscribeMerchant(Long merchantId) {
+        return subscribeMerchant(merchantId, new SseEmitter(timeoutMs));
+    }
+
+    public boolean hasSubscribers() {
+        return connections.get() > 0;
+    }
+
+    public boolean hasMerchantSubscribers() {
+        return !merchants.isEmpty();
+    }
+
+    /**
+     * 推送订单变更给下单用户和相关商户；只做入队，不阻塞调用线程
+     */
+    public void publish(OrderStatusChange change, Long customerId, Collection<Long> merchantIds) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event()
+                .name(EVENT_NAME)
+                .id(String.valueOf(change.getId()))
+                .data(change, MediaType.APPLICATION_JSON);
+        deliver(customers.get(customerId), event);
+        for (Long merchantId : merchantIds) {
+            deliver(merchants.get(merchantId), event);
+        }
+    }
+
+    /**
+     * 定时发送心跳注释，保持空闲连接并及时清理已断开的客户端
+     */
+    @Scheduled(fixedDelayString = "${app.order.events.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        SseEmitter.SseEventBuilder ping = SseEmitter.event().comment("ping");
+        customers.values().forEach(subscribers -> deliver(subscribers, ping));
+        merchants.values().forEach(subscribers -> deliver(subscribers, ping));
+    }
+
+    int connectionCount() {
+        return connections.get();
+    }
+
+    SseEmitter subscribeCustomer(Long customerId, SseEmitter emitter) {
+        return subscribe(customers, customerId, emitter);
+    }
+
+    SseEmitter subscribeMerchant(Long merchantId, SseEmitter emitter) {
+        return subscribe(merchants, merchantId, emitter);
+    }
+
+    private SseEmitter subscribe(ConcurrentHashMap<Long, Set<Subscriber>> registry, Long key, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, () -> unregister(registry, key));
+        registry.compute(key, (id, subscribers) -> {
+            Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        connections.incrementAndGet();
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        return emitter;
+    }
+
+    private void unregister(ConcurrentHashMap<Long, Set<Subscriber>> registry, Long key) {
+        connections.decrementAndGet();
+        registry.computeIfPresent(key, (id, subscribers) -> {
+            subscribers.removeIf(Subscriber::isClosed);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private void deliver(Set<Subscriber> subscribers, SseEmitter.SseEventBuilder event) {
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.buffer.offer(event)) {
+                log.debug("订单推送缓冲区已满，断开慢速客户端");
+                subscriber.emitter.complete();
+                subscriber.close();
+                continue;
+            }
+            subscriber.schedule();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        customers.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        merchants.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    /**
+     * 单个连接：有界缓冲区 + 写出标记，同一连接同时只有一个线程在写
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Runnable onClose;
+        private final ArrayBlockingQueue<SseEmitter.SseEventBuilder> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Runnable onClose) {
+            this.emitter = emitter;
+            this.onClose = onClose;
+        }
+
+        private boolean isClosed() {
+            return closed.get();
+        }
+
+        private void schedule() {
+            if (!closed.get() && draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = buffer.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // 客户端已断开
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // 写出期间新到的事件
+            if (!buffer.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                buffer.clear();
+                onClose.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.backend.order;
+
+import java.util.List;
+
+/**
+ * 订单事件下游；每个下游独立记录投递进度。
+ * 投递失败时抛出异常，整批事件会在下次重试（至少一次投递，下游需按事件ID去重）
+ */
+public interface OrderEventSink {
+
+    /**
+     * 下游名称，作为投递游标的主键
+     */
+    String name();
+
+    /**
+     * 暂不可用的下游本轮跳过，游标不动
+     */
+    default boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * 按事件ID升序投递一批事件
+     */
+    void deliver(List<OrderOutboxEvent> events);
+}
@@ -0,0 +1,13 @@
+package com.example.backend.order;
+
+/**
+ * 订单领域事件类型
+ */
+public enum OrderEventType {
+    CREATED,                // 已创建
+    STATUS_CHANGED,         // 订单状态变更
+    PAYMENT_STATUS_CHANGED, // 支付状态变更
+    CANCELLED,              // 用户取消
+    EXPIRED,                // 超时未支付自动取消
+    DELETED                 // 已删除
+}
@@ -0,0 +1,161 @@
+package com.example.backend.order;
+
+import com.example.backend.common.HierarchicalTimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 待支付订单超时取消
+ * 每个待支付订单的截止时间放入内存分层时间轮（不轮询数据库），
+ * 定时推进时间轮，到期订单分批取消并批量归还库存；应用启动时从数据库重建时间轮。
+ * 支付失败重新计时时替换该订单在时间轮中的截止时间。
+ * 实例异常退出后其时间轮中的订单由其他实例的定期兜底扫描取消
+ */
+@Component
+public class OrderExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExpiryScheduler.class);
+
+    /** 重建时间轮时每批读取的订单数 */
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    /** 兜底扫描时每批读取的订单数 */
+    private static final int SWEEP_BATCH_SIZE = 1000;
+
+    /** 取消失败的订单延后重试的时间 */
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    /** 待支付订单的支付时限 */
+    @Value("${app.order.payment-timeout:30m}")
+    private Duration paymentTimeout;
+
+    /** 每个事务取消的最大订单数 */
+    @Value("${app.order.expiry-batch-size:200}")
+    private int batchSize;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    /** 每格 1 秒、每层 60 格：第 0 层覆盖 1 分钟，第 1 层 1 小时，第 2 层 60 小时 */
+    private final HierarchicalTimingWheel<Long> wheel =
+            new HierarchicalTimingWheel<>(1000, 60, System.currentTimeMillis());
+
+    /** 加入时已过期、等待下次推进时处理的订单 */
+    private final List<Long> overdue = new ArrayList<>();
+
+    /**
+     * 应用启动后按ID分批加载待支付订单
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long lastId = 0L;
+        int loaded = 0;
+        List<Object[]> batch;
+        do {
+            batch = orderRepository.findPendingPaymentAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (Object[] row : batch) {
+                lastId = (Long) row[0];
+                track(lastId, (LocalDateTime) row[1]);
+            }
+            loaded += batch.size();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        log.info("待支付订单超时时间轮已重建: {} 个订单", loaded);
+    }
+
+    /**
+     * 订单进入待支付状态的事务提交后开始计时
+     */
+    @TransactionalEventListener
+    public void onPaymentPending(PaymentPendingEvent event) {
+        track(event.orderId(), event.since());
+    }
+
+    /**
+     * 推进时间轮，分批取消到期订单
+     */
+    @Scheduled(fixedDelayString = "${app.order.expiry-tick-ms:1000}")
+    public void expireDue() {
+        long now = System.currentTimeMillis();
+        List<Long> due = wheel.advance(now);
+        synchronized (overdue) {
+            due.addAll(overdue);
+            overdue.clear();
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(paymentTimeout);
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                int cancelled = orderService.expireOrders(batch, cutoff);
+                if (cancelled > 0) {
+                    log.info("已自动取消 {} 个超时未支付订单", cancelled);
+                }
+            } catch (RuntimeException e) {
+                log.warn("超时订单取消失败，{} 秒后重试: {}", RETRY_DELAY.toSeconds(), e.getMessage());
+                for (Long orderId : batch) {
+                    wheel.add(orderId, now + RETRY_DELAY.toMillis());
+                }
+            }
+        }
+    }
+
+    /**
+     * 兜底扫描：取消数据库中已超过支付时限仍待支付的订单（如下单实例在到期前退出，订单只在其时间轮中）
+     */
+    @Scheduled(initialDelayString = "${app.order.expiry-sweep-interval-ms:300000}",
+            fixedDelayString = "${app.order.expiry-sweep-interval-ms:300000}")
+    public void sweepOverdue() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(paymentTimeout);
+        int swept = 0;
+        List<Long> batch;
+        do {
+            batch = orderRepository.findOverduePendingPaymentIds(cutoff, PageRequest.of(0, SWEEP_BATCH_SIZE));
+            int cancelled = 0;
+            try {
+                for (int from = 0; from < batch.size(); from += batchSize) {
+                    List<Long> chunk = batch.subList(from, Math.min(from + batchSize, batch.size()));
+                    cancelled += orderService.expireOrders(chunk, cutoff);
+                }
+            } catch (RuntimeException e) {
+                log.warn("兜底扫描取消超时订单失败，下次扫描重试: {}", e.getMessage());
+                break;
+            }
+            swept += cancelled;
+            // 本批一个都没取消（已被并发取消或支付）时停止，避免重复读取同一批
+            if (cancelled == 0) {
+                break;
+            }
+        } while (batch.size() == SWEEP_BATCH_SIZE);
+        if (swept > 0) {
+            log.info("兜底扫描取消了 {} 个超时未支付订单", swept);
+        }
+    }
+
+    private void track(Long orderId, LocalDateTime since) {
+        LocalDateTime start = since != null ? since : LocalDateTime.now();
+        long deadline = start.plus(paymentTimeout).atZone(zone).toInstant().toEpochMilli();
+        if (wheel.add(orderId, deadline)) {
+            synchronized (overdue) {
+                overdue.add(orderId);
+            }
+        }
+    }
+}
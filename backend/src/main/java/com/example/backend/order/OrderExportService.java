@@ -0,0 +1,147 @@
+package com.example.backend.order;
+
+import com.example.backend.analytics.exception.InvalidDateRangeException;
+import com.example.backend.order.dto.OrderExportRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 订单 CSV 导出服务（财务对账）
+ * 在一个只读事务中流式读取，逐行写入响应流，内存占用与导出的日期范围无关。
+ * 抓取大小只设置在导出查询上：MySQL 驱动在抓取大小为 Integer.MIN_VALUE 时逐行流式返回结果，
+ * 其他查询仍使用默认的整体读取，连接串无需开启 useCursorFetch
+ */
+@Service
+public class OrderExportService {
+
+    private static final String HEADER = "id,order_number,order_date,customer_id,status,payment_status," +
+            "payment_method,payment_reference,payment_date,subtotal,shipping_fee,tax_amount,discount_amount,total_amount";
+
+    /** 每写出多少行刷新一次响应流，让客户端尽早收到数据 */
+    private static final int FLUSH_ROWS = 1000;
+
+    /** 条件为空时不过滤；商户条件走 merchant_orders 关联表 */
+    private static final String EXPORT_QUERY =
+            "SELECT new com.example.backend.order.dto.OrderExportRow(o.id, o.orderNumber, o.orderDate, o.customer.id, " +
+            "o.status, o.paymentStatus, o.paymentMethod, o.paymentReference, o.paymentDate, " +
+            "o.subtotal, o.shippingFee, o.taxAmount, o.discountAmount, o.totalAmount) " +
+            "FROM Order o WHERE (:status IS NULL OR o.status = :status) " +
+            "AND (:paymentStatus IS NULL OR o.paymentStatus = :paymentStatus) " +
+            "AND (:from IS NULL OR o.orderDate >= :from) " +
+            "AND (:to IS NULL OR o.orderDate < :to) " +
+            "AND (:merchantId IS NULL OR EXISTS " +
+            "(SELECT 1 FROM MerchantOrder mo WHERE mo.orderId = o.id AND mo.merchantId = :merchantId)) " +
+            "ORDER BY o.orderDate, o.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** 导出查询的 JDBC 抓取大小，MySQL 配置为 Integer.MIN_VALUE（逐行流式读取） */
+    @Value("${app.order.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * 校验导出条件，日期包含两端；必须在开始写响应之前调用，错误才能以普通的错误响应返回
+     */
+    public void checkRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidDateRangeException("开始日期不能晚于结束日期");
+        }
+    }
+
+    /**
+     * 按条件导出订单（条件为空时不过滤），返回导出的行数
+     */
+    @Transactional(readOnly = true)
+    public long exportCsv(OrderStatus status, PaymentStatus paymentStatus, Long merchantId,
+                          LocalDate from, LocalDate to, OutputStream outputStream) {
+        LocalDateTime fromTime = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toTime = to != null ? to.plusDays(1).atStartOfDay() : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long rows = 0;
+        try (Stream<OrderExportRow> stream = streamRows(status, paymentStatus, merchantId, fromTime, toTime)) {
+            writer.write(HEADER);
+            writer.write('\n');
+            Iterator<OrderExportRow> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                writeRow(writer, iterator.next());
+                if (++rows % FLUSH_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            // 客户端中途断开
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    /**
+     * 流式读取导出行，只读查询不进入持久化上下文的脏检查
+     */
+    Stream<OrderExportRow> streamRows(OrderStatus status, PaymentStatus paymentStatus, Long merchantId,
+                                      LocalDateTime from, LocalDateTime to) {
+        return entityManager.createQuery(EXPORT_QUERY, OrderExportRow.class)
+                .setParameter("status", status)
+                .setParameter("paymentStatus", paymentStatus)
+                .setParameter("merchantId", merchantId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private void writeRow(Writer writer, OrderExportRow row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writeField(writer, row.getOrderNumber());
+        writeField(writer, row.getOrderDate());
+        writeField(writer, row.getCustomerId());
+        writeField(writer, row.getStatus());
+        writeField(writer, row.getPaymentStatus());
+        writeField(writer, row.getPaymentMethod());
+        writeField(writer, row.getPaymentReference());
+        writeField(writer, row.getPaymentDate());
+        writeField(writer, row.getSubtotal());
+        writeField(writer, row.getShippingFee());
+        writeField(writer, row.getTaxAmount());
+        writeField(writer, row.getDiscountAmount());
+        writeField(writer, row.getTotalAmount());
+        writer.write('\n');
+    }
+
+    /**
+     * 写出逗号和字段值；空值写为空字段，含逗号、引号或换行的值按 RFC 4180 加引号转义
+     */
+    private void writeField(Writer writer, Object value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
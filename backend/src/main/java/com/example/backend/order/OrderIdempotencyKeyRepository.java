@@ -0,0 +1,32 @@
+package com.example.backend.order;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * 下单幂等键数据访问层
+ */
+@Repository
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKey, Long> {
+
+    /**
+     * 查询幂等键对应的订单ID
+     */
+    @Query("SELECT k.orderId FROM OrderIdempotencyKey k WHERE k.userId = :userId AND k.idempotencyKey = :key")
+    Optional<Long> findOrderId(@Param("userId") Long userId, @Param("key") String key);
+
+    /**
+     * 删除过期的幂等键
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OrderIdempotencyKey k WHERE k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,139 @@
+package com.example.backend.order;
+
+import com.example.backend.order.dto.CreateOrderRequest;
+import com.example.backend.order.dto.OrderResponse;
+import com.example.backend.order.exception.IdempotencyConflictException;
+import com.example.backend.order.exception.OrderCreationException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 下单幂等处理
+ * 带 Idempotency-Key 的下单请求先查内存表（有界、按写入时间过期），再查持久化的幂等键表：
+ * 已完成的请求直接返回原订单；同一实例上并发的重复请求等待首个请求的结果，不会重复下单。
+ * 幂等键与订单在同一事务中写入，多实例并发时由唯一约束兜底
+ */
+@Service
+public class OrderIdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIdempotencyService.class);
+
+    /** Idempotency-Key 最大长度（与表字段一致） */
+    static final int MAX_KEY_LENGTH = 100;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private FlashSaleAdmission flashSaleAdmission;
+
+    @Autowired
+    private OrderIdempotencyKeyRepository idempotencyKeyRepository;
+
+    /** 重复请求等待首个请求完成的最长时间 */
+    @Value("${app.order.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    /** 幂等键持久化保留时间 */
+    @Value("${app.order.idempotency.retention:24h}")
+    private Duration retention;
+
+    /** (用户ID:幂等键) -> 订单ID；未完成时为进行中的请求 */
+    private final Cache<String, CompletableFuture<Long>> requests;
+
+    public OrderIdempotencyService(
+            @Value("${app.order.idempotency.maximum-size:100000}") long maximumSize,
+            @Value("${app.order.idempotency.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.requests = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * 创建订单；idempotencyKey 为空时不做幂等处理
+     */
+    public OrderResponse createOrder(String idempotencyKey, CreateOrderRequest request) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return flashSaleAdmission.createOrder(request, null);
+        }
+        String key = idempotencyKey.trim();
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new OrderCreationException("Idempotency-Key 长度不能超过" + MAX_KEY_LENGTH);
+        }
+
+        String cacheKey = request.getUserId() + ":" + key;
+        CompletableFuture<Long> pending = new CompletableFuture<>();
+        CompletableFuture<Long> existing = requests.asMap().putIfAbsent(cacheKey, pending);
+        if (existing != null) {
+            return orderService.getOrderById(await(existing));
+        }
+
+        try {
+            Optional<Long> recorded = idempotencyKeyRepository.findOrderId(request.getUserId(), key);
+            OrderResponse order = recorded.isPresent()
+                    ? orderService.getOrderById(recorded.get())
+                    : create(key, request);
+            pending.complete(order.getId());
+            return order;
+        } catch (RuntimeException e) {
+            // 失败的请求不缓存，客户端可用同一个键重试
+            requests.asMap().remove(cacheKey, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 定期清理过期的幂等键
+     */
+    @Scheduled(cron = "${app.order.idempotency.cleanup-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        int deleted = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("已清理 {} 条过期下单幂等键", deleted);
+        }
+    }
+
+    private OrderResponse create(String key, CreateOrderRequest request) {
+        try {
+            return flashSaleAdmission.createOrder(request, key);
+        } catch (DataIntegrityViolationException e) {
+            // 其他实例已用同一个键创建了订单（本事务已回滚）
+            return idempotencyKeyRepository.findOrderId(request.getUserId(), key)
+                    .map(orderService::getOrderById)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private Long await(CompletableFuture<Long> inFlight) {
+        try {
+            return inFlight.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("相同 Idempotency-Key 的请求仍在处理中，请稍后重试", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("相同 Idempotency-Key 的请求仍在处理中，请稍后重试", e);
+        }
+    }
+}
@@ -23,8 +23,12 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 public class OrderItem {
 
+    /** 主键分配方式同订单，见 IdAllocation */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_id")
+    @TableGenerator(name = "order_item_id", table = IdAllocation.TABLE, pkColumnName = IdAllocation.NAME_COLUMN,
+            valueColumnName = IdAllocation.VALUE_COLUMN, pkColumnValue = "order_items",
+            allocationSize = IdAllocation.ORDER_ITEM_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
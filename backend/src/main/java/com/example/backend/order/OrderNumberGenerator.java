@@ -0,0 +1,136 @@
+package com.example.backend.order;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 订单号生成器（Snowflake 风格：毫秒时间 + 节点ID + 毫秒内序号）
+ * 格式：ORD-yyyyMMddHHmmssSSS-NNNN-SSSS，同一节点内单调递增、按字典序可排序；
+ * 多实例部署时各实例配置不同的 app.order-number.node-id 即可保证全局唯一
+ */
+@Component
+public class OrderNumberGenerator {
+
+    /** 节点ID上限（10 位） */
+    static final int MAX_NODE_ID = 1023;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    @Value("${app.order-number.node-id:0}")
+    private int nodeId;
+
+    private final ZoneId zone;
+
+    /** 高位为毫秒时间戳，低 12 位为该毫秒内的序号 */
+    private final AtomicLong state = new AtomicLong();
+
+    /** 最近一秒的 yyyyMMddHHmmss 文本，同一秒内复用 */
+    private volatile SecondText secondText = new SecondText(Long.MIN_VALUE, "");
+
+    private record SecondText(long epochSecond, String text) {
+    }
+
+    public OrderNumberGenerator() {
+        this(0, ZoneId.systemDefault());
+    }
+
+    OrderNumberGenerator(int nodeId, ZoneId zone) {
+        this.nodeId = nodeId;
+        this.zone = zone;
+    }
+
+    @PostConstruct
+    void validate() {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("app.order-number.node-id 必须在 0-" + MAX_NODE_ID + " 之间: " + nodeId);
+        }
+    }
+
+    /**
+     * 生成下一个订单号
+     */
+    public String next() {
+        long value = nextValue();
+        long millis = value >>> SEQUENCE_BITS;
+        int sequence = (int) (value & SEQUENCE_MASK);
+
+        StringBuilder sb = new StringBuilder(31);
+        sb.append("ORD-").append(secondText(millis / 1000));
+        appendPadded(sb, (int) (millis % 1000), 3);
+        sb.append('-');
+        appendPadded(sb, nodeId, 4);
+        sb.append('-');
+        appendPadded(sb, sequence, 4);
+        return sb.toString();
+    }
+
+    /**
+     * CAS 推进 (毫秒, 序号)：新的毫秒序号归零；同一毫秒内序号用尽或时钟回拨时沿用/借用后续毫秒，
+     * 保证单调不重复且不阻塞
+     */
+    long nextValue() {
+        while (true) {
+            long current = state.get();
+            long lastMillis = current >>> SEQUENCE_BITS;
+            long now = currentMillis();
+            long next;
+            if (now > lastMillis) {
+                next = now << SEQUENCE_BITS;
+            } else if ((current & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = current + 1;
+            } else {
+                next = (lastMillis + 1) << SEQUENCE_BITS;
+            }
+            if (state.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    long currentMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private String secondText(long epochSecond) {
+        SecondText cached = secondText;
+        if (cached.epochSecond() == epochSecond) {
+            return cached.text();
+        }
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zone);
+        StringBuilder sb = new StringBuilder(14);
+        appendPadded(sb, time.getYear(), 4);
+        appendPadded(sb, time.getMonthValue(), 2);
+        appendPadded(sb, time.getDayOfMonth(), 2);
+        appendPadded(sb, time.getHour(), 2);
+        appendPadded(sb, time.getMinute(), 2);
+        appendPadded(sb, time.getSecond(), 2);
+        String text = sb.toString();
+        // 时钟回拨后旧的秒数不覆盖新值，避免来回抖动
+        if (epochSecond > cached.epochSecond()) {
+            secondText = new SecondText(epochSecond, text);
+        }
+        return text;
+    }
+
+    private static void appendPadded(StringBuilder sb, int value, int width) {
+        for (int divisor = pow10(width - 1); divisor > 1 && value < divisor; divisor /= 10) {
+            sb.append('0');
+        }
+        sb.append(value);
+    }
+
+    private static int pow10(int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.backend.order;
+
+import com.example.backend.order.dto.OrderEventPayload;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * 订单事件写入发件箱；必须在修改订单的同一事务中调用，事务回滚时事件一并丢弃
+ */
+@Component
+public class OrderOutbox {
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 记录创建、删除等没有前置状态的事件
+     */
+    public void record(OrderEventType type, Collection<Order> orders) {
+        outboxRepository.saveAll(orders.stream()
+                .map(order -> event(type, OrderEventPayload.fromEntity(order, null, null)))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * 记录状态变更事件，previousStatus/previousPaymentStatus 为变更前的状态
+     */
+    public void recordTransition(OrderEventType type, Order order, OrderStatus previousStatus,
+                                 PaymentStatus previousPaymentStatus) {
+        outboxRepository.save(event(type, OrderEventPayload.fromEntity(order, previousStatus, previousPaymentStatus)));
+    }
+
+    /**
+     * 解析事件内容
+     */
+    public OrderEventPayload readPayload(OrderOutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), OrderEventPayload.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("订单事件解析失败，事件ID: " + event.getId(), e);
+        }
+    }
+
+    private OrderOutboxEvent event(OrderEventType type, OrderEventPayload payload) {
+        OrderOutboxEvent event = new OrderOutboxEvent();
+        event.setOrderId(payload.getId());
+        event.setCustomerId(payload.getCustomerId());
+        event.setEventType(type);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("订单事件序列化失败，订单ID: " + payload.getId(), e);
+        }
+        return event;
+    }
+}
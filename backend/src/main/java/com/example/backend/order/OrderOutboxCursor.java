@@ -0,0 +1,31 @@
+package com.example.backend.order;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 发件箱投递进度：每个下游各自记录已投递的最大事件ID
+ */
+@Entity
+@Table(name = "order_outbox_cursors")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderOutboxCursor {
+
+    @Id
+    @Column(length = 50)
+    private String sink;
+
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,30 @@
+package com.example.backend.order;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * 发件箱投递游标数据访问层
+ */
+@Repository
+public interface OrderOutboxCursorRepository extends JpaRepository<OrderOutboxCursor, String> {
+
+    /**
+     * 锁定下游的投递游标，多实例部署时同一下游同时只有一个实例在投递；已被锁定时立即失败
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "0"))
+    @Query("SELECT c FROM OrderOutboxCursor c WHERE c.sink = :sink")
+    Optional<OrderOutboxCursor> findBySinkForUpdate(@Param("sink") String sink);
+
+    @Query("SELECT MIN(c.lastEventId) FROM OrderOutboxCursor c")
+    Optional<Long> findMinLastEventId();
+}
@@ -0,0 +1,211 @@
+package com.example.backend.order;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 发件箱投递
+ * 定时按主键顺序从游标处批量读取事件（WHERE id > ? ORDER BY id LIMIT n），交给各下游后推进该下游的游标；
+ * 读取、投递、推进游标在同一事务中并锁定游标行（NOWAIT），多实例部署时同一下游不会被并发投递，
+ * 游标已被锁定时直接跳过，不阻塞调度线程
+ */
+@Component
+public class OrderOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderOutboxRelay.class);
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private OrderOutboxCursorRepository cursorRepository;
+
+    @Autowired
+    private List<OrderEventSink> sinks;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /** 每批投递的最大事件数 */
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+
+    /** 每次调度每个下游最多投递的批数，避免单个下游长时间占用 */
+    @Value("${app.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    /**
+     * ID 空洞等待时间：自增ID按分配顺序而非提交顺序可见，空洞之后的事件在此时间内不投递，
+     * 等待可能仍未提交的事务；超过该时间的空洞视为已回滚
+     */
+    @Value("${app.outbox.settle:5s}")
+    private Duration settle;
+
+    /** 已投递事件的保留时间 */
+    @Value("${app.outbox.retention:7d}")
+    private Duration retention;
+
+    private final Map<String, SinkStats> stats = new ConcurrentHashMap<>();
+
+    public OrderOutboxRelay(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 单个下游的投递统计
+     */
+    private static final class SinkStats {
+        private final AtomicLong deliveredEvents = new AtomicLong();
+        private final AtomicLong batches = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private volatile long lastBatchSize;
+        private volatile long lastBatchNanos;
+        private volatile long deliveryLatencyMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void relay() {
+        for (OrderEventSink sink : sinks) {
+            if (!sink.isAvailable()) {
+                continue;
+            }
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                int delivered;
+                try {
+                    delivered = relayBatch(sink);
+                } catch (PessimisticLockingFailureException e) {
+                    // 其他实例正在投递该下游（或正在重建），本轮跳过
+                    break;
+                } catch (RuntimeException e) {
+                    stats(sink).failures.incrementAndGet();
+                    log.warn("订单事件投递失败，下游: {}，稍后重试: {}", sink.name(), e.getMessage());
+                    break;
+                }
+                if (delivered < batchSize) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 投递一批事件，返回投递的事件数
+     */
+    int relayBatch(OrderEventSink sink) {
+        Integer delivered = transactionTemplate.execute(status -> {
+            OrderOutboxCursor cursor = cursorRepository.findBySinkForUpdate(sink.name())
+                    .orElseGet(() -> cursorRepository.save(new OrderOutboxCursor(sink.name(), 0L, null)));
+            List<OrderOutboxEvent> batch = deliverable(
+                    outboxRepository.findAfter(cursor.getLastEventId(), PageRequest.of(0, batchSize)),
+                    cursor.getLastEventId(), LocalDateTime.now().minus(settle));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            long start = System.nanoTime();
+            sink.deliver(batch);
+            long elapsed = System.nanoTime() - start;
+
+            OrderOutboxEvent last = batch.get(batch.size() - 1);
+            cursor.setLastEventId(last.getId());
+            cursorRepository.save(cursor);
+
+            SinkStats sinkStats = stats(sink);
+            sinkStats.deliveredEvents.addAndGet(batch.size());
+            sinkStats.batches.incrementAndGet();
+            sinkStats.lastBatchSize = batch.size();
+            sinkStats.lastBatchNanos = elapsed;
+            sinkStats.deliveryLatencyMillis = Duration.between(last.getCreatedAt(), LocalDateTime.now()).toMillis();
+            return batch.size();
+        });
+        return delivered != null ? delivered : 0;
+    }
+
+    /**
+     * 截取可以投递的前缀：遇到ID空洞且空洞后的事件仍在等待期内时停止
+     */
+    static List<OrderOutboxEvent> deliverable(List<OrderOutboxEvent> events, long afterId, LocalDateTime settledBefore) {
+        List<OrderOutboxEvent> result = new ArrayList<>(events.size());
+        long expected = afterId + 1;
+        for (OrderOutboxEvent event : events) {
+            if (event.getId() != expected && event.getCreatedAt().isAfter(settledBefore)) {
+                break;
+            }
+            result.add(event);
+            expected = event.getId() + 1;
+        }
+        return result;
+    }
+
+    /**
+     * 定期删除所有下游都已投递且超过保留时间的事件
+     */
+    @Scheduled(cron = "${app.outbox.cleanup-cron:0 45 3 * * *}")
+    public void purgeDelivered() {
+        Long deliveredId = transactionTemplate.execute(status -> cursorRepository.findMinLastEventId().orElse(0L));
+        if (deliveredId == null || deliveredId == 0L) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxRepository.deleteDelivered(deliveredId, LocalDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("已清理 {} 条已投递的订单事件", deleted);
+        }
+    }
+
+    /**
+     * 各下游的吞吐和延迟指标
+     * pendingEvents：游标之后的事件数（按ID估算）；lagMillis：最早未投递事件已等待的时间；
+     * deliveryLatencyMillis：最近一批中最新事件从写入到投递完成的时间
+     */
+    public Map<String, Object> stats() {
+        return transactionTemplate.execute(status -> {
+            long maxId = outboxRepository.findMaxId().orElse(0L);
+            Map<String, Object> result = new LinkedHashMap<>();
+            for (OrderEventSink sink : sinks) {
+                SinkStats sinkStats = stats(sink);
+                long cursor = cursorRepository.findById(sink.name())
+                        .map(OrderOutboxCursor::getLastEventId)
+                        .orElse(0L);
+                long lagMillis = outboxRepository.findAfter(cursor, PageRequest.of(0, 1)).stream()
+                        .findFirst()
+                        .map(event -> Duration.between(event.getCreatedAt(), LocalDateTime.now()).toMillis())
+                        .orElse(0L);
+
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("lastEventId", cursor);
+                item.put("pendingEvents", Math.max(maxId - cursor, 0));
+                item.put("lagMillis", lagMillis);
+                item.put("deliveredEvents", sinkStats.deliveredEvents.get());
+                item.put("batches", sinkStats.batches.get());
+                item.put("failures", sinkStats.failures.get());
+                item.put("lastBatchSize", sinkStats.lastBatchSize);
+                item.put("lastBatchEventsPerSecond", sinkStats.lastBatchNanos > 0
+                        ? sinkStats.lastBatchSize * 1_000_000_000L / sinkStats.lastBatchNanos : 0);
+                item.put("deliveryLatencyMillis", sinkStats.deliveryLatencyMillis);
+                result.put(sink.name(), item);
+            }
+            return result;
+        });
+    }
+
+    private SinkStats stats(OrderEventSink sink) {
+        return stats.computeIfAbsent(sink.name(), name -> new SinkStats());
+    }
+}
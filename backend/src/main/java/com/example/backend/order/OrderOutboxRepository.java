@@ -0,0 +1,35 @@
+package com.example.backend.order;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 订单事件发件箱数据访问层
+ */
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    /**
+     * 读取游标之后的一批事件（主键范围扫描）
+     */
+    @Query("SELECT e FROM OrderOutboxEvent e WHERE e.id > :afterId ORDER BY e.id")
+    List<OrderOutboxEvent> findAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT MAX(e.id) FROM OrderOutboxEvent e")
+    Optional<Long> findMaxId();
+
+    /**
+     * 删除所有下游都已投递且超过保留时间的事件
+     */
+    @Modifying
+    @Query("DELETE FROM OrderOutboxEvent e WHERE e.id <= :deliveredId AND e.createdAt < :before")
+    int deleteDelivered(@Param("deliveredId") Long deliveredId, @Param("before") LocalDateTime before);
+}
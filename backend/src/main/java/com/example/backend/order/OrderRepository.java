@@ -1,12 +1,17 @@
 package com.example.backend.order;
 
+import com.example.backend.order.dto.OrderSummary;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,18 +21,117 @@ import java.util.Optional;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    List<Order> findByCustomerId(Long customerId);
-
-    Page<Order> findByCustomerId(Long customerId, Pageable pageable);
+    /** 订单列表项构造器表达式（别名 o），参数顺序与 OrderSummary 字段一致 */
+    String SUMMARY = "new com.example.backend.order.dto.OrderSummary(o.id, o.orderNumber, o.customer.id, " +
+            "o.status, o.paymentStatus, o.totalAmount, o.orderDate, o.updatedAt)";
 
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
 
     Optional<Order> findByOrderNumber(String orderNumber);
 
-    @Query("SELECT DISTINCT o FROM Order o JOIN o.items i WHERE i.merchant.id = :merchantId")
-    Page<Order> findByMerchantId(@Param("merchantId") Long merchantId, Pageable pageable);
+    /**
+     * 订单列表项：按用户分页
+     */
+    @Query(value = "SELECT " + SUMMARY + " FROM Order o WHERE o.customer.id = :customerId",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.customer.id = :customerId")
+    Page<OrderSummary> findSummariesByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
 
-    @Query("SELECT DISTINCT o FROM Order o JOIN o.items i WHERE i.merchant.id = :merchantId")
-    List<Order> findByMerchantId(@Param("merchantId") Long merchantId);
-}
+    /**
+     * 订单列表项：按商户分页（按非下单时间排序时使用，下单时间排序走 merchant_orders）
+     */
+    @Query(value = "SELECT " + SUMMARY + " FROM Order o WHERE EXISTS " +
+            "(SELECT 1 FROM OrderItem i WHERE i.order = o AND i.merchant.id = :merchantId)",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE EXISTS " +
+                    "(SELECT 1 FROM OrderItem i WHERE i.order = o AND i.merchant.id = :merchantId)")
+    Page<OrderSummary> findSummariesByMerchantId(@Param("merchantId") Long merchantId, Pageable pageable);
+
+    /**
+     * 订单列表项：按商户和订单状态分页（按非下单时间排序时使用）
+     */
+    @Query(value = "SELECT " + SUMMARY + " FROM Order o WHERE o.status = :status AND EXISTS " +
+            "(SELECT 1 FROM OrderItem i WHERE i.order = o AND i.merchant.id = :merchantId)",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.status = :status AND EXISTS " +
+                    "(SELECT 1 FROM OrderItem i WHERE i.order = o AND i.merchant.id = :merchantId)")
+    Page<OrderSummary> findSummariesByMerchantIdAndStatus(@Param("merchantId") Long merchantId,
+                                                          @Param("status") OrderStatus status, Pageable pageable);
+
+    /**
+     * 订单列表项：按状态分页
+     */
+    @Query(value = "SELECT " + SUMMARY + " FROM Order o WHERE o.status = :status",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.status = :status")
+    Page<OrderSummary> findSummariesByStatus(@Param("status") OrderStatus status, Pageable pageable);
+
+    /**
+     * 订单列表项：分页查询全部订单
+     */
+    @Query(value = "SELECT " + SUMMARY + " FROM Order o",
+            countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<OrderSummary> findAllSummaries(Pageable pageable);
+
+    /**
+     * 订单列表项：用户全部订单，按下单时间倒序
+     */
+    @Query("SELECT " + SUMMARY + " FROM Order o WHERE o.customer.id = :customerId ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummary> findSummariesByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * 订单列表项游标分页：第一页，按下单时间、ID倒序
+     */
+    @Query("SELECT " + SUMMARY + " FROM Order o ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummary> findFirstSummaries(Pageable pageable);
 
+    /**
+     * 订单列表项游标分页：定位到 (orderDate, id) 之后继续按倒序读取
+     */
+    @Query("SELECT " + SUMMARY + " FROM Order o WHERE o.orderDate <= :orderDate AND " +
+            "(o.orderDate < :orderDate OR o.id < :id) " +
+            "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummary> findSummariesBefore(@Param("orderDate") LocalDateTime orderDate,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
+    /**
+     * 按ID一次性加载订单及其用户、订单项和商户
+     */
+    @Query("SELECT o FROM Order o JOIN FETCH o.customer " +
+            "LEFT JOIN FETCH o.items i LEFT JOIN FETCH i.merchant " +
+            "WHERE o.id IN :ids")
+    List<Order> findWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 查询单个订单及其用户、订单项和商户
+     */
+    @Query("SELECT o FROM Order o JOIN FETCH o.customer " +
+            "LEFT JOIN FETCH o.items i LEFT JOIN FETCH i.merchant " +
+            "WHERE o.id = :id")
+    Optional<Order> findWithDetailsById(@Param("id") Long id);
+
+    /**
+     * 加锁读取订单（支付状态更新与超时取消互斥）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * 按ID顺序加锁读取给定订单中仍处于指定状态的订单
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.status = :status ORDER BY o.id")
+    List<Order> findByIdInAndStatusForUpdate(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
+
+    /**
+     * 按ID顺序分批读取待支付订单的 (id, 支付计时起点)，用于重建超时时间轮
+     */
+    @Query("SELECT o.id, COALESCE(o.paymentPendingSince, o.orderDate) FROM Order o " +
+            "WHERE o.status = com.example.backend.order.OrderStatus.PENDING_PAYMENT AND o.id > :afterId ORDER BY o.id")
+    List<Object[]> findPendingPaymentAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 支付计时起点早于 cutoff（已超过支付时限）仍待支付的订单ID，用于兜底扫描
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status = com.example.backend.order.OrderStatus.PENDING_PAYMENT " +
+            "AND COALESCE(o.paymentPendingSince, o.orderDate) < :cutoff ORDER BY o.id")
+    List<Long> findOverduePendingPaymentIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
@@ -1,27 +1,46 @@
 package com.example.backend.order;
 
+import com.example.backend.common.KeysetCursor;
+import com.example.backend.common.TransactionCallbacks;
+import com.example.backend.common.dto.CursorPage;
 import com.example.backend.order.dto.*;
 import com.example.backend.order.exception.OrderCreationException;
 import com.example.backend.order.exception.OrderNotFoundException;
 import com.example.backend.order.exception.OrderStatusException;
+import com.example.backend.product.FlashSaleStock;
 import com.example.backend.product.Product;
+import com.example.backend.product.ProductCache;
 import com.example.backend.product.ProductRepository;
+import com.example.backend.product.ProductSearchIndex;
 import com.example.backend.product.ProductStatus;
+import com.example.backend.product.ProductStockUpdater;
 import com.example.backend.product.exception.ProductNotFoundException;
 import com.example.backend.user.User;
 import com.example.backend.user.UserRepository;
 import com.example.backend.user.exception.UserNotFoundException;
 import com.example.backend.product.exception.InsufficientStockException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -34,16 +53,64 @@ public class OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private MerchantOrderRepository merchantOrderRepository;
+
+    @Autowired
+    private OrderEventHub orderEventHub;
+
+    @Autowired
+    private OrderOutbox orderOutbox;
+
+    @Autowired
+    private OrderIdempotencyKeyRepository idempotencyKeyRepository;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @Autowired
+    private ProductStockUpdater productStockUpdater;
+
+    @Autowired
+    private FlashSaleStock flashSaleStock;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * 创建订单
      */
     public OrderResponse createOrder(CreateOrderRequest request) {
+        return createOrder(request, null, null);
+    }
+
+    /**
+     * 创建订单，并在同一事务中记录幂等键（idempotencyKey 为空时不记录）
+     */
+    public OrderResponse createOrder(CreateOrderRequest request, String idempotencyKey) {
+        return createOrder(request, null, idempotencyKey);
+    }
+
+    /**
+     * 创建秒杀订单：秒杀商品的库存已由调用方在内存计数器中预留，这里只扣减其余商品的数据库库存
+     */
+    public OrderResponse createFlashSaleOrder(CreateOrderRequest request, Long flashSaleProductId, String idempotencyKey) {
+        return createOrder(request, flashSaleProductId, idempotencyKey);
+    }
+
+    private OrderResponse createOrder(CreateOrderRequest request, Long flashSaleProductId, String idempotencyKey) {
         if (request.getItems() == null || request.getItems().isEmpty()) {
             throw new OrderCreationException("订单至少包含一个商品");
         }
@@ -52,7 +119,7 @@ public class OrderService {
                 .orElseThrow(() -> new UserNotFoundException("用户不存在，ID: " + request.getUserId()));
 
         Order order = new Order();
-        order.setOrderNumber(generateOrderNumber());
+        order.setOrderNumber(orderNumberGenerator.next());
         order.setCustomer(customer);
         order.setPaymentMethod(request.getPaymentMethod());
         order.setShippingName(request.getShippingName());
@@ -62,19 +129,33 @@ public class OrderService {
         order.setShippingPostcode(request.getShippingPostcode());
         order.setShippingCountry(request.getShippingCountry());
         order.setNotes(request.getNotes());
-        order.setItems(new java.util.ArrayList<>());
-
+        order.setItems(new ArrayList<>());
+
+        // 一次查询加载订单涉及的全部商品；按商品ID排序汇总数量，批量扣减库存时按固定顺序加行锁
+        Map<Long, Product> products = productRepository.findWithMerchantByIdIn(
+                        request.getItems().stream().map(OrderItemRequest::getProductId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, Integer> quantities = new TreeMap<>();
         BigDecimal subtotal = BigDecimal.ZERO;
 
         for (OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ProductNotFoundException("商品不存在，ID: " + itemRequest.getProductId()));
+            Product product = products.get(itemRequest.getProductId());
+            if (product == null) {
+                throw new ProductNotFoundException("商品不存在，ID: " + itemRequest.getProductId());
+            }
 
             if (!Boolean.TRUE.equals(product.getEnabled()) || product.getStatus() == ProductStatus.INACTIVE) {
                 throw new OrderCreationException("商品已下架或不可用: " + product.getName());
             }
 
-            if (product.getStock() < itemRequest.getQuantity()) {
+            boolean reserved = product.getId().equals(flashSaleProductId);
+            if (!reserved && flashSaleStock.isActive(product.getId())) {
+                throw new OrderCreationException("秒杀商品需单独下单: " + product.getName());
+            }
+
+            int quantity = quantities.merge(product.getId(), itemRequest.getQuantity(), Integer::sum);
+            if (!reserved && product.getStock() < quantity) {
                 throw new InsufficientStockException("商品库存不足: " + product.getName());
             }
 
@@ -93,13 +174,13 @@ public class OrderService {
             orderItem.setTotalPrice(totalPrice);
             orderItem.setNotes(itemRequest.getNotes());
             order.getItems().add(orderItem);
+        }
 
-            // 更新商品库存与销量
-            product.setStock(product.getStock() - itemRequest.getQuantity());
-            product.setSalesCount(product.getSalesCount() + itemRequest.getQuantity());
-            if (product.getStock() == 0) {
-                product.setStatus(ProductStatus.OUT_OF_STOCK);
-            }
+        if (flashSaleProductId != null) {
+            quantities.remove(flashSaleProductId);
+        }
+        if (!quantities.isEmpty()) {
+            reserveStock(quantities);
         }
 
         BigDecimal shippingFee = defaultIfNull(request.getShippingFee());
@@ -117,7 +198,20 @@ public class OrderService {
         order.setDiscountAmount(discountAmount);
         order.setTotalAmount(totalAmount);
 
-        Order savedOrder = orderRepository.save(order);
+        // 号段主键下 save 不会立即 INSERT，先刷出订单和订单项（同一批），生成 orderDate / updatedAt 供下面使用
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        merchantOrderRepository.saveAll(savedOrder.getItems().stream()
+                .map(item -> item.getMerchant().getId())
+                .distinct()
+                .map(merchantId -> new MerchantOrder(null, merchantId, savedOrder.getId(),
+                        savedOrder.getOrderDate(), savedOrder.getStatus()))
+                .collect(Collectors.toList()));
+        orderOutbox.record(OrderEventType.CREATED, List.of(savedOrder));
+        if (idempotencyKey != null) {
+            // 唯一约束 (user_id, idempotency_key) 冲突时整个下单事务回滚
+            idempotencyKeyRepository.save(new OrderIdempotencyKey(null, customer.getId(), idempotencyKey, savedOrder.getId(), null));
+        }
+        eventPublisher.publishEvent(new PaymentPendingEvent(savedOrder.getId(), savedOrder.getOrderDate()));
         return OrderResponse.fromEntity(savedOrder);
     }
 
@@ -145,46 +239,78 @@ public class OrderService {
      * 获取用户订单列表
      */
     @Transactional(readOnly = true)
-    public List<OrderResponse> getOrdersByUser(Long userId) {
-        return orderRepository.findByCustomerId(userId).stream()
-                .map(OrderResponse::fromEntity)
-                .collect(Collectors.toList());
+    public List<OrderSummary> getOrdersByUser(Long userId) {
+        return orderRepository.findSummariesByCustomerId(userId);
     }
 
     /**
      * 获取用户订单（分页）
      */
     @Transactional(readOnly = true)
-    public Page<OrderResponse> getOrdersByUser(Long userId, Pageable pageable) {
-        return orderRepository.findByCustomerId(userId, pageable)
-                .map(OrderResponse::fromEntity);
+    public Page<OrderSummary> getOrdersByUser(Long userId, Pageable pageable) {
+        return orderRepository.findSummariesByCustomerId(userId, pageable);
     }
 
     /**
      * 获取商户相关订单（包含其商品的订单）
      */
     @Transactional(readOnly = true)
-    public Page<OrderResponse> getOrdersByMerchant(Long merchantId, Pageable pageable) {
-        return orderRepository.findByMerchantId(merchantId, pageable)
-                .map(OrderResponse::fromEntity);
+    public Page<OrderSummary> getOrdersByMerchant(Long merchantId, Pageable pageable) {
+        return getOrdersByMerchant(merchantId, null, pageable);
+    }
+
+    /**
+     * 获取商户相关订单，可按订单状态过滤（status 为空时不过滤）
+     * 按下单时间排序时直接在 merchant_orders 覆盖索引上分页，其他排序字段回退到订单表查询
+     */
+    @Transactional(readOnly = true)
+    public Page<OrderSummary> getOrdersByMerchant(Long merchantId, OrderStatus status, Pageable pageable) {
+        Sort sort = pageable.getSort();
+        Sort.Order byDate = sort.getOrderFor("orderDate");
+        if (sort.isUnsorted() || (byDate != null && sort.stream().count() == 1)) {
+            Sort.Direction direction = byDate != null ? byDate.getDirection() : Sort.Direction.DESC;
+            Pageable indexPage = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    Sort.by(direction, "orderDate", "orderId"));
+            Page<OrderSummary> orders = status == null
+                    ? merchantOrderRepository.findSummaries(merchantId, indexPage)
+                    : merchantOrderRepository.findSummaries(merchantId, status, indexPage);
+            return new PageImpl<>(orders.getContent(), pageable, orders.getTotalElements());
+        }
+        return status == null
+                ? orderRepository.findSummariesByMerchantId(merchantId, pageable)
+                : orderRepository.findSummariesByMerchantIdAndStatus(merchantId, status, pageable);
     }
 
     /**
      * 获取全部订单（分页）
      */
     @Transactional(readOnly = true)
-    public Page<OrderResponse> getAllOrders(Pageable pageable) {
-        return orderRepository.findAll(pageable)
-                .map(OrderResponse::fromEntity);
+    public Page<OrderSummary> getAllOrders(Pageable pageable) {
+        return orderRepository.findAllSummaries(pageable);
+    }
+
+    /**
+     * 获取全部订单（游标分页，按下单时间倒序，不统计总数）
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummary> getAllOrders(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = CursorPage.clampSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<OrderSummary> rows = after == null
+                ? orderRepository.findFirstSummaries(limit)
+                : orderRepository.findSummariesBefore(after.createdAt(), after.id(), limit);
+        return CursorPage.of(rows, pageSize,
+                order -> new KeysetCursor(order.getOrderDate(), order.getId()),
+                Function.identity());
     }
 
     /**
      * 根据状态获取订单（分页）
      */
     @Transactional(readOnly = true)
-    public Page<OrderResponse> getOrdersByStatus(OrderStatus status, Pageable pageable) {
-        return orderRepository.findByStatus(status, pageable)
-                .map(OrderResponse::fromEntity);
+    public Page<OrderSummary> getOrdersByStatus(OrderStatus status, Pageable pageable) {
+        return orderRepository.findSummariesByStatus(status, pageable);
     }
 
     /**
@@ -194,32 +320,89 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException("订单不存在，ID: " + orderId));
 
-        if (order.getStatus() == OrderStatus.CANCELLED) {
-            throw new OrderStatusException("订单已取消，无法更新状态");
-        }
-
-        order.setStatus(request.getStatus());
-        if (request.getStatus() == OrderStatus.SHIPPED) {
-            order.setShippedDate(LocalDateTime.now());
-        } else if (request.getStatus() == OrderStatus.DELIVERED || request.getStatus() == OrderStatus.COMPLETED) {
-            order.setDeliveredDate(LocalDateTime.now());
-        }
+        checkStatusUpdatable(order);
 
-        order.setShippingProvider(request.getShippingProvider());
-        order.setTrackingNumber(request.getTrackingNumber());
-        order.setNotes(request.getNotes());
+        OrderStatus previousStatus = order.getStatus();
+        PaymentStatus previousPaymentStatus = order.getPaymentStatus();
+        applyStatusUpdate(order, request.getStatus(), request.getShippingProvider(), request.getTrackingNumber(),
+                request.getNotes(), LocalDateTime.now());
 
         Order savedOrder = orderRepository.save(order);
+        merchantOrderRepository.updateStatus(List.of(orderId), savedOrder.getStatus());
+        orderOutbox.recordTransition(OrderEventType.STATUS_CHANGED, savedOrder, previousStatus, previousPaymentStatus);
+        publishStatusChanges(List.of(savedOrder));
         return OrderResponse.fromEntity(savedOrder);
     }
 
+    /**
+     * 批量更新订单状态（发货等）
+     * 一次按ID加载全部订单并在内存中校验，不合法的条目记为失败、不影响其他订单；
+     * 合法的修改在事务提交时由 Hibernate 按批次（hibernate.jdbc.batch_size）写回
+     */
+    public BulkUpdateOrderStatusResponse updateOrderStatuses(List<OrderStatusUpdate> updates) {
+        Map<Long, Order> orders = orderRepository.findAllById(updates.stream()
+                        .map(OrderStatusUpdate::getOrderId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderStatusUpdateResult> results = new ArrayList<>(updates.size());
+        List<Order> updated = new ArrayList<>();
+        Map<OrderStatus, List<Long>> idsByStatus = new EnumMap<>(OrderStatus.class);
+        Set<Long> seen = new HashSet<>();
+        for (OrderStatusUpdate update : updates) {
+            Long orderId = update.getOrderId();
+            Order order = orders.get(orderId);
+            if (order == null) {
+                results.add(OrderStatusUpdateResult.failed(orderId, "订单不存在，ID: " + orderId));
+                continue;
+            }
+            if (!seen.add(orderId)) {
+                results.add(OrderStatusUpdateResult.failed(orderId, "同一订单在请求中重复出现"));
+                continue;
+            }
+            try {
+                checkStatusUpdatable(order);
+                if (update.getStatus() == OrderStatus.CANCELLED) {
+                    // 取消需要归还库存，必须走取消订单接口
+                    throw new OrderStatusException("批量更新不支持取消订单，请使用取消订单接口");
+                }
+            } catch (OrderStatusException e) {
+                results.add(OrderStatusUpdateResult.failed(orderId, e.getMessage()));
+                continue;
+            }
+
+            OrderStatus previousStatus = order.getStatus();
+            PaymentStatus previousPaymentStatus = order.getPaymentStatus();
+            applyStatusUpdate(order, update.getStatus(), update.getShippingProvider(), update.getTrackingNumber(),
+                    update.getNotes(), now);
+            orderOutbox.recordTransition(OrderEventType.STATUS_CHANGED, order, previousStatus, previousPaymentStatus);
+            idsByStatus.computeIfAbsent(order.getStatus(), status -> new ArrayList<>()).add(orderId);
+            updated.add(order);
+            results.add(OrderStatusUpdateResult.succeeded(orderId, order.getStatus()));
+        }
+
+        if (!updated.isEmpty()) {
+            idsByStatus.forEach((status, ids) -> merchantOrderRepository.updateStatus(ids, status));
+            publishStatusChanges(updated);
+        }
+        return BulkUpdateOrderStatusResponse.of(results);
+    }
+
     /**
      * 更新支付状态
      */
     public OrderResponse updatePaymentStatus(Long orderId, UpdatePaymentStatusRequest request) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new OrderNotFoundException("订单不存在，ID: " + orderId));
 
+        // 已取消（含超时自动取消）的订单库存已归还，只允许退款
+        if (order.getStatus() == OrderStatus.CANCELLED && request.getPaymentStatus() != PaymentStatus.REFUNDED) {
+            throw new OrderStatusException("订单已取消，无法更新支付状态");
+        }
+
+        OrderStatus previousStatus = order.getStatus();
+        PaymentStatus previousPaymentStatus = order.getPaymentStatus();
         order.setPaymentStatus(request.getPaymentStatus());
         order.setPaymentReference(request.getPaymentReference());
         if (request.getPaymentStatus() == PaymentStatus.PAID) {
@@ -228,10 +411,17 @@ public class OrderService {
         } else if (request.getPaymentStatus() == PaymentStatus.REFUNDED) {
             order.setStatus(OrderStatus.REFUNDED);
         } else if (request.getPaymentStatus() == PaymentStatus.FAILED) {
+            // 支付时限重新计算，超时时间轮替换该订单原来的截止时间
+            LocalDateTime now = LocalDateTime.now();
             order.setStatus(OrderStatus.PENDING_PAYMENT);
+            order.setPaymentPendingSince(now);
+            eventPublisher.publishEvent(new PaymentPendingEvent(orderId, now));
         }
 
         Order savedOrder = orderRepository.save(order);
+        merchantOrderRepository.updateStatus(List.of(orderId), savedOrder.getStatus());
+        orderOutbox.recordTransition(OrderEventType.PAYMENT_STATUS_CHANGED, savedOrder, previousStatus, previousPaymentStatus);
+        publishStatusChanges(List.of(savedOrder));
         return OrderResponse.fromEntity(savedOrder);
     }
 
@@ -239,44 +429,183 @@ public class OrderService {
      * 取消订单
      */
     public OrderResponse cancelOrder(Long orderId, CancelOrderRequest request) {
-        Order order = orderRepository.findById(orderId)
+        // 先锁定订单行，避免与支付回调、超时自动取消并发时重复归还库存
+        orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new OrderNotFoundException("订单不存在，ID: " + orderId));
+        Order order = orderRepository.findWithDetailsById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException("订单不存在，ID: " + orderId));
 
         if (!order.getCustomer().getId().equals(request.getUserId())) {
             throw new OrderStatusException("只能取消自己的订单");
         }
 
+        if (order.getStatus() == OrderStatus.CANCELLED) {
+            throw new OrderStatusException("订单已取消");
+        }
+
         if (order.getStatus() == OrderStatus.SHIPPED || order.getStatus() == OrderStatus.DELIVERED
                 || order.getStatus() == OrderStatus.COMPLETED) {
             throw new OrderStatusException("当前状态无法取消订单");
         }
 
+        OrderStatus previousStatus = order.getStatus();
+        PaymentStatus previousPaymentStatus = order.getPaymentStatus();
         order.setStatus(OrderStatus.CANCELLED);
         order.setPaymentStatus(PaymentStatus.FAILED);
         order.setCancellationReason(request.getReason());
         order.setCancelledDate(LocalDateTime.now());
 
         // 恢复库存
-        order.getItems().forEach(item -> {
-            Product product = item.getProduct();
-            product.setStock(product.getStock() + item.getQuantity());
-            if (product.getStock() > 0 && product.getStatus() == ProductStatus.OUT_OF_STOCK) {
-                product.setStatus(ProductStatus.ACTIVE);
-            }
-        });
+        Map<Long, Integer> quantities = new TreeMap<>();
+        order.getItems().forEach(item -> quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum));
+        restoreStock(quantities);
 
         Order savedOrder = orderRepository.save(order);
+        merchantOrderRepository.updateStatus(List.of(orderId), OrderStatus.CANCELLED);
+        orderOutbox.recordTransition(OrderEventType.CANCELLED, savedOrder, previousStatus, previousPaymentStatus);
+        publishStatusChanges(List.of(savedOrder));
         return OrderResponse.fromEntity(savedOrder);
     }
 
+    /**
+     * 批量取消超时未支付的订单并一次性归还库存；已支付、已取消，或支付计时起点晚于 cutoff 的订单跳过
+     * （支付失败后重新计时的订单，其他实例的时间轮中可能还留有原来的截止时间）。返回实际取消的订单数
+     */
+    public int expireOrders(Collection<Long> orderIds, LocalDateTime cutoff) {
+        List<Order> orders = orderRepository.findByIdInAndStatusForUpdate(orderIds, OrderStatus.PENDING_PAYMENT).stream()
+                .filter(order -> !(order.getPaymentPendingSince() != null ? order.getPaymentPendingSince()
+                        : order.getOrderDate()).isAfter(cutoff))
+                .toList();
+        if (orders.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> expiredIds = new ArrayList<>(orders.size());
+        Map<Long, PaymentStatus> previousPaymentStatuses = new HashMap<>();
+        for (Order order : orders) {
+            previousPaymentStatuses.put(order.getId(), order.getPaymentStatus());
+            order.setStatus(OrderStatus.CANCELLED);
+            order.setPaymentStatus(PaymentStatus.FAILED);
+            order.setCancellationReason("超时未支付，系统自动取消");
+            order.setCancelledDate(now);
+            expiredIds.add(order.getId());
+        }
+        merchantOrderRepository.updateStatus(expiredIds, OrderStatus.CANCELLED);
+
+        // 一次抓取全部订单明细，用于归还库存和记录事件
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (Order order : orderRepository.findWithDetailsByIdIn(expiredIds)) {
+            order.getItems().forEach(item -> quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum));
+            orderOutbox.recordTransition(OrderEventType.EXPIRED, order, OrderStatus.PENDING_PAYMENT,
+                    previousPaymentStatuses.get(order.getId()));
+        }
+        publishStatusChanges(orders);
+        if (!quantities.isEmpty()) {
+            restoreStock(quantities);
+        }
+        return orders.size();
+    }
+
     /**
      * 删除订单（仅管理员使用）
      */
     public void deleteOrder(Long orderId) {
-        if (!orderRepository.existsById(orderId)) {
-            throw new OrderNotFoundException("订单不存在，ID: " + orderId);
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException("订单不存在，ID: " + orderId));
+        orderOutbox.record(OrderEventType.DELETED, List.of(order));
+        merchantOrderRepository.deleteByOrderId(orderId);
+        orderRepository.delete(order);
+    }
+
+    /**
+     * 已取消的订单不允许再更新状态
+     */
+    private void checkStatusUpdatable(Order order) {
+        if (order.getStatus() == OrderStatus.CANCELLED) {
+            throw new OrderStatusException("订单已取消，无法更新状态");
+        }
+    }
+
+    /**
+     * 设置订单状态及物流信息，发货、送达时记录对应时间
+     */
+    private void applyStatusUpdate(Order order, OrderStatus status, String shippingProvider, String trackingNumber,
+                                   String notes, LocalDateTime now) {
+        order.setStatus(status);
+        if (status == OrderStatus.SHIPPED) {
+            order.setShippedDate(now);
+        } else if (status == OrderStatus.DELIVERED || status == OrderStatus.COMPLETED) {
+            order.setDeliveredDate(now);
+        }
+
+        order.setShippingProvider(shippingProvider);
+        order.setTrackingNumber(trackingNumber);
+        order.setNotes(notes);
+    }
+
+    /**
+     * 事务提交后向下单用户和相关商户推送状态变更；没有订阅者时不做任何查询
+     */
+    private void publishStatusChanges(List<Order> orders) {
+        if (!orderEventHub.hasSubscribers()) {
+            return;
+        }
+        Map<Long, List<Long>> merchantIds = new HashMap<>();
+        if (orderEventHub.hasMerchantSubscribers()) {
+            List<Long> orderIds = orders.stream().map(Order::getId).collect(Collectors.toList());
+            for (Object[] row : merchantOrderRepository.findMerchantIdsByOrderIdIn(orderIds)) {
+                merchantIds.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+            }
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            for (Order order : orders) {
+                orderEventHub.publish(OrderStatusChange.fromEntity(order), order.getCustomer().getId(),
+                        merchantIds.getOrDefault(order.getId(), List.of()));
+            }
+        });
+    }
+
+    /**
+     * 单条语句批量原子扣减库存（UPDATE ... WHERE stock >= ?），任一商品库存不足即抛出异常回滚整个事务；
+     * 扣减后售罄的商品移出搜索索引
+     */
+    private void reserveStock(Map<Long, Integer> quantities) {
+        if (!productStockUpdater.reserve(quantities)) {
+            // 预检查已通过，说明库存在此期间被并发订单扣减
+            throw new InsufficientStockException("商品库存不足，请刷新后重试");
+        }
+
+        productRepository.findIdsByIdInAndStatus(quantities.keySet(), ProductStatus.OUT_OF_STOCK)
+                .forEach(productSearchIndex::remove);
+        productCache.evictAll(quantities.keySet());
+    }
+
+    /**
+     * 单条语句批量归还库存，恢复上架的商品重新加入搜索索引；秒杀中的商品退回内存计数器
+     */
+    private void restoreStock(Map<Long, Integer> quantities) {
+        Map<Long, Integer> flashSale = new TreeMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (flashSaleStock.isActive(productId)) {
+                flashSale.put(productId, quantity);
+            }
+        });
+        quantities.keySet().removeAll(flashSale.keySet());
+        if (!flashSale.isEmpty()) {
+            TransactionCallbacks.afterCommit(() -> flashSale.forEach(flashSaleStock::restore));
+        }
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        List<Long> soldOut = productRepository.findIdsByIdInAndStatus(quantities.keySet(), ProductStatus.OUT_OF_STOCK);
+        productStockUpdater.restore(quantities);
+
+        if (!soldOut.isEmpty()) {
+            productRepository.findAllById(soldOut).forEach(productSearchIndex::index);
         }
-        orderRepository.deleteById(orderId);
+        productCache.evictAll(quantities.keySet());
     }
 
     private BigDecimal defaultIfNull(BigDecimal value) {
@@ -289,10 +618,5 @@ public class OrderService {
         }
         return discount;
     }
-
-    private String generateOrderNumber() {
-        return "ORD-" + LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
-                + "-" + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
-    }
 }
 
@@ -0,0 +1,9 @@
+package com.example.backend.order;
+
+import java.time.LocalDateTime;
+
+/**
+ * 订单进入待支付状态（新建订单或支付失败），since 为支付超时的计时起点
+ */
+public record PaymentPendingEvent(Long orderId, LocalDateTime since) {
+}
@@ -0,0 +1,23 @@
+package com.example.backend.order.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量更新订单状态请求DTO
+ */
+@Data
+public class BulkUpdateOrderStatusRequest {
+
+    /** 单次请求最多更新的订单数 */
+    public static final int MAX_UPDATES = 500;
+
+    @NotEmpty(message = "更新列表不能为空")
+    @Size(max = MAX_UPDATES, message = "单次最多更新 " + MAX_UPDATES + " 个订单")
+    @Valid
+    private List<OrderStatusUpdate> updates;
+}
@@ -0,0 +1,25 @@
+package com.example.backend.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量更新订单状态响应DTO，results 与请求中的 updates 一一对应
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateOrderStatusResponse {
+
+    private int succeeded;
+    private int failed;
+    private List<OrderStatusUpdateResult> results;
+
+    public static BulkUpdateOrderStatusResponse of(List<OrderStatusUpdateResult> results) {
+        int succeeded = (int) results.stream().filter(OrderStatusUpdateResult::isSuccess).count();
+        return new BulkUpdateOrderStatusResponse(succeeded, results.size() - succeeded, results);
+    }
+}
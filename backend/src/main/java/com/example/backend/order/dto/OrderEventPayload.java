@@ -0,0 +1,72 @@
+package com.example.backend.order.dto;
+
+import com.example.backend.order.Order;
+import com.example.backend.order.OrderStatus;
+import com.example.backend.order.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 发件箱事件内容：事件发生后的订单快照、变更前的状态和订单明细，下游无需回查订单表
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEventPayload {
+
+    private Long id;
+    private String orderNumber;
+    private Long customerId;
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    /** 变更前的订单状态（创建、删除事件为空） */
+    private OrderStatus previousStatus;
+    /** 变更前的支付状态（创建、删除事件为空） */
+    private PaymentStatus previousPaymentStatus;
+    private BigDecimal totalAmount;
+    private String trackingNumber;
+    private String cancellationReason;
+    private LocalDateTime orderDate;
+    private LocalDateTime updatedAt;
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long productId;
+        private Long merchantId;
+        private Integer quantity;
+        private BigDecimal totalPrice;
+    }
+
+    public static OrderEventPayload fromEntity(Order order, OrderStatus previousStatus,
+                                               PaymentStatus previousPaymentStatus) {
+        return OrderEventPayload.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .customerId(order.getCustomer() != null ? order.getCustomer().getId() : null)
+                .status(order.getStatus())
+                .paymentStatus(order.getPaymentStatus())
+                .previousStatus(previousStatus)
+                .previousPaymentStatus(previousPaymentStatus)
+                .totalAmount(order.getTotalAmount())
+                .trackingNumber(order.getTrackingNumber())
+                .cancellationReason(order.getCancellationReason())
+                .orderDate(order.getOrderDate())
+                .updatedAt(order.getUpdatedAt())
+                .items(order.getItems() != null ? order.getItems().stream()
+                        .map(item -> new Item(item.getProduct().getId(), item.getMerchant().getId(),
+                                item.getQuantity(), item.getTotalPrice()))
+                        .collect(Collectors.toList()) : List.of())
+                .build();
+    }
+}
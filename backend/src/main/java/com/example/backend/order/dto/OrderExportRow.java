@@ -0,0 +1,37 @@
+package com.example.backend.order.dto;
+
+import com.example.backend.order.OrderStatus;
+import com.example.backend.order.PaymentMethod;
+import com.example.backend.order.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 订单导出行DTO
+ * 由 JPQL 构造器表达式直接生成，不进入持久化上下文，流式导出时内存占用与行数无关；
+ * 字段顺序即构造器参数顺序，与仓库中的查询保持一致
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExportRow {
+
+    private Long id;
+    private String orderNumber;
+    private LocalDateTime orderDate;
+    private Long customerId;
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    private PaymentMethod paymentMethod;
+    private String paymentReference;
+    private LocalDateTime paymentDate;
+    private BigDecimal subtotal;
+    private BigDecimal shippingFee;
+    private BigDecimal taxAmount;
+    private BigDecimal discountAmount;
+    private BigDecimal totalAmount;
+}
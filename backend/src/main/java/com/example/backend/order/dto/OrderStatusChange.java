@@ -0,0 +1,51 @@
+package com.example.backend.order.dto;
+
+import com.example.backend.order.Order;
+import com.example.backend.order.OrderStatus;
+import com.example.backend.order.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 订单状态变更推送DTO（只包含状态相关字段，客户端据此更新本地的 OrderResponse）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusChange {
+
+    private Long id;
+    private String orderNumber;
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    private String shippingProvider;
+    private String trackingNumber;
+    private String cancellationReason;
+    private LocalDateTime paymentDate;
+    private LocalDateTime shippedDate;
+    private LocalDateTime deliveredDate;
+    private LocalDateTime cancelledDate;
+    private LocalDateTime updatedAt;
+
+    public static OrderStatusChange fromEntity(Order order) {
+        return OrderStatusChange.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .status(order.getStatus())
+                .paymentStatus(order.getPaymentStatus())
+                .shippingProvider(order.getShippingProvider())
+                .trackingNumber(order.getTrackingNumber())
+                .cancellationReason(order.getCancellationReason())
+                .paymentDate(order.getPaymentDate())
+                .shippedDate(order.getShippedDate())
+                .deliveredDate(order.getDeliveredDate())
+                .cancelledDate(order.getCancelledDate())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+    }
+}
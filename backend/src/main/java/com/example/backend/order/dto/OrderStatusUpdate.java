@@ -0,0 +1,24 @@
+package com.example.backend.order.dto;
+
+import com.example.backend.order.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * 批量更新订单状态中的单条更新
+ */
+@Data
+public class OrderStatusUpdate {
+
+    @NotNull(message = "订单ID不能为空")
+    private Long orderId;
+
+    @NotNull(message = "订单状态不能为空")
+    private OrderStatus status;
+
+    private String shippingProvider;
+
+    private String trackingNumber;
+
+    private String notes;
+}
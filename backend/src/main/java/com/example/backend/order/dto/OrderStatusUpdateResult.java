@@ -0,0 +1,32 @@
+package com.example.backend.order.dto;
+
+import com.example.backend.order.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量更新订单状态中单个订单的处理结果
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusUpdateResult {
+
+    private Long orderId;
+    private boolean success;
+    /** 成功时为更新后的状态 */
+    private OrderStatus status;
+    /** 失败原因 */
+    private String message;
+
+    public static OrderStatusUpdateResult succeeded(Long orderId, OrderStatus status) {
+        return OrderStatusUpdateResult.builder().orderId(orderId).success(true).status(status).build();
+    }
+
+    public static OrderStatusUpdateResult failed(Long orderId, String message) {
+        return OrderStatusUpdateResult.builder().orderId(orderId).success(false).message(message).build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.backend.order.dto;
+
+import com.example.backend.order.OrderStatus;
+import com.example.backend.order.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 订单列表项DTO
+ * 由订单表单表查询直接构造（JPQL 构造器表达式），不加载用户和订单明细；
+ * 字段顺序即构造器参数顺序，与仓库中的查询保持一致
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+
+    private Long id;
+    private String orderNumber;
+    private Long customerId;
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    private BigDecimal totalAmount;
+    private LocalDateTime orderDate;
+    private LocalDateTime updatedAt;
+}
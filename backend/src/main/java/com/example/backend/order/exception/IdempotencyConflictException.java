@@ -0,0 +1,15 @@
+package com.example.backend.order.exception;
+
+/**
+ * 幂等键冲突异常（相同 Idempotency-Key 的请求仍在处理中）
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+
+    public IdempotencyConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.backend.order.exception;
+
+/**
+ * 下单排队已满异常（秒杀抢购人数过多）
+ */
+public class OrderAdmissionException extends RuntimeException {
+
+    public OrderAdmissionException(String message) {
+        super(message);
+    }
+
+    public OrderAdmissionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
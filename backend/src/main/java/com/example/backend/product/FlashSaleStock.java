@@ -0,0 +1,275 @@
+package com.example.backend.product;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 秒杀商品内存库存
+ * 秒杀期间下单只扣减内存计数器，不再争抢 products 行锁。计数器中的库存是从数据库分批租借的：
+ * 每次用条件 UPDATE（stock >= 批量）从 products.stock 扣出一批，数据库库存始终等于尚未租出的数量，
+ * 多个实例各自租借，合计不会超过数据库库存。售出数量定期合并为一条批量 UPDATE 累加到销量；
+ * 秒杀结束或应用关闭时，未售出的租借库存归还数据库。
+ * 秒杀开关以 products.flash_sale 为准，各实例定期同步，开启/结束最迟一个同步周期后在所有实例生效。
+ * 实例异常退出时尚未归还的租借库存（最多每个商品一批）不会自动回到数据库，只会少卖，不会超卖
+ */
+@Component
+public class FlashSaleStock {
+
+    private static final Logger log = LoggerFactory.getLogger(FlashSaleStock.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockUpdater productStockUpdater;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductCache productCache;
+
+    /** 每次从数据库租借的件数 */
+    @Value("${app.flash-sale.lease-size:20}")
+    private int leaseSize;
+
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    /** 已售出、尚未累加到销量的数量 */
+    private final ConcurrentHashMap<Long, Integer> sales = new ConcurrentHashMap<>();
+
+    /** 活动结束后才到达的归还数量，等待下次写回 */
+    private final ConcurrentHashMap<Long, Integer> leftovers = new ConcurrentHashMap<>();
+
+    /**
+     * 单个秒杀商品的计数器：available 为本实例租借到、尚未售出的库存；
+     * closed 后不再租借和接受归还，归还数量由调用方写回数据库
+     */
+    private static final class Counter {
+        private final AtomicInteger available = new AtomicInteger();
+        /** 上次租借时数据库库存已不足，下次同步前直接拒绝 */
+        private volatile boolean soldOut;
+        private boolean closed;
+    }
+
+    /**
+     * 应用启动后加载所有秒杀商品
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+        if (!counters.isEmpty()) {
+            log.info("已加载 {} 个秒杀商品", counters.size());
+        }
+    }
+
+    /**
+     * 按数据库中的秒杀开关开启/结束计数器，并清除售罄标记以便重新尝试租借（其他实例可能已归还库存）
+     */
+    @Scheduled(fixedDelayString = "${app.flash-sale.refresh-interval-ms:2000}")
+    public void refresh() {
+        Set<Long> enabled = new HashSet<>(productRepository.findFlashSaleIds());
+        enabled.forEach(this::start);
+        for (Long productId : counters.keySet()) {
+            if (!enabled.contains(productId)) {
+                stop(productId);
+            }
+        }
+        counters.values().forEach(counter -> counter.soldOut = false);
+    }
+
+    /**
+     * 开启秒杀：库存在下单时按需租借
+     */
+    public void start(Long productId) {
+        counters.putIfAbsent(productId, new Counter());
+    }
+
+    /**
+     * 结束秒杀：关闭计数器并把未售出的租借库存归还数据库
+     */
+    public void stop(Long productId) {
+        Counter counter = counters.remove(productId);
+        if (counter == null) {
+            return;
+        }
+        int unsold;
+        synchronized (counter) {
+            counter.closed = true;
+            unsold = counter.available.getAndSet(0);
+        }
+        returnLeased(productId, unsold);
+    }
+
+    public boolean isActive(Long productId) {
+        return counters.containsKey(productId);
+    }
+
+    /**
+     * 本实例租借到的可售库存；非秒杀商品返回 -1
+     */
+    public int available(Long productId) {
+        Counter counter = counters.get(productId);
+        return counter != null ? counter.available.get() : -1;
+    }
+
+    /**
+     * 数据库库存已租完且本实例余量不足 quantity 时返回 true，用于排队前快速拒绝
+     */
+    public boolean isSoldOut(Long productId, int quantity) {
+        Counter counter = counters.get(productId);
+        return counter != null && counter.soldOut && counter.available.get() < quantity;
+    }
+
+    /**
+     * 尝试预留库存，本实例余量不足时从数据库租借；库存不足或活动已结束时返回 false
+     */
+    public boolean tryAcquire(Long productId, int quantity) {
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            return false;
+        }
+        while (!take(counter, quantity)) {
+            synchronized (counter) {
+                if (counter.closed) {
+                    return false;
+                }
+                int shortfall = quantity - counter.available.get();
+                if (shortfall <= 0) {
+                    continue;
+                }
+                int leased = lease(productId, shortfall);
+                if (leased == 0) {
+                    counter.soldOut = true;
+                    return false;
+                }
+                counter.available.addAndGet(leased);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 下单失败，释放预留的库存
+     */
+    public void release(Long productId, int quantity) {
+        giveBack(productId, quantity);
+    }
+
+    /**
+     * 订单已提交，售出数量计入待累加的销量（库存在租借时已从数据库扣除）
+     */
+    public void confirm(Long productId, int quantity) {
+        sales.merge(productId, quantity, Integer::sum);
+    }
+
+    /**
+     * 秒杀订单取消后（事务提交后调用）库存退回计数器；活动已结束时随下次写回归还数据库
+     */
+    public void restore(Long productId, int quantity) {
+        giveBack(productId, quantity);
+    }
+
+    /**
+     * 定期将售出数量累加到销量，并写回活动结束后到达的归还数量
+     */
+    @Scheduled(fixedDelayString = "${app.flash-sale.flush-interval-ms:1000}")
+    public void flush() {
+        Map<Long, Integer> sold = drain(sales);
+        if (!sold.isEmpty()) {
+            try {
+                productStockUpdater.addSales(sold);
+            } catch (RuntimeException e) {
+                log.warn("秒杀销量写回失败，将在下次重试: {}", e.getMessage());
+                sold.forEach((productId, quantity) -> sales.merge(productId, quantity, Integer::sum));
+            }
+        }
+        drain(leftovers).forEach(this::returnLeased);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Long productId : counters.keySet()) {
+            stop(productId);
+        }
+        flush();
+    }
+
+    private static boolean take(Counter counter, int quantity) {
+        int current;
+        do {
+            current = counter.available.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!counter.available.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    /**
+     * 从数据库租借一批库存（不少于 shortfall），剩余不足一批时只租 shortfall；返回租到的数量，租不到为 0
+     */
+    private int lease(Long productId, int shortfall) {
+        int batch = Math.max(leaseSize, shortfall);
+        int leased = productStockUpdater.lease(productId, batch) ? batch
+                : batch > shortfall && productStockUpdater.lease(productId, shortfall) ? shortfall : 0;
+        if (leased > 0) {
+            productCache.evict(productId);
+        }
+        return leased;
+    }
+
+    private void giveBack(Long productId, int quantity) {
+        Counter counter = counters.get(productId);
+        if (counter != null) {
+            synchronized (counter) {
+                if (!counter.closed) {
+                    counter.available.addAndGet(quantity);
+                    counter.soldOut = false;
+                    return;
+                }
+            }
+        }
+        leftovers.merge(productId, quantity, Integer::sum);
+    }
+
+    /**
+     * 归还租借库存并校正状态，写回后同步搜索索引和详情缓存；失败的数量留待下次写回
+     */
+    private void returnLeased(Long productId, int quantity) {
+        try {
+            productStockUpdater.returnLeased(productId, quantity);
+        } catch (RuntimeException e) {
+            log.warn("秒杀库存归还失败，将在下次重试: {}", e.getMessage());
+            leftovers.merge(productId, quantity, Integer::sum);
+            return;
+        }
+        productRepository.findById(productId).ifPresent(productSearchIndex::index);
+        productCache.evict(productId);
+    }
+
+    private static Map<Long, Integer> drain(ConcurrentHashMap<Long, Integer> pending) {
+        Map<Long, Integer> drained = new TreeMap<>();
+        for (Long productId : pending.keySet()) {
+            Integer quantity = pending.remove(productId);
+            if (quantity != null && quantity != 0) {
+                drained.put(productId, quantity);
+            }
+        }
+        return drained;
+    }
+}
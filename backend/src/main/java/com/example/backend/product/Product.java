@@ -20,7 +20,9 @@ import java.time.LocalDateTime;
     @Index(name = "idx_merchant_id", columnList = "merchant_id"),
     @Index(name = "idx_status", columnList = "status"),
     @Index(name = "idx_category", columnList = "category"),
-    @Index(name = "idx_name", columnList = "name")
+    @Index(name = "idx_name", columnList = "name"),
+    @Index(name = "idx_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_status_enabled_created_at_id", columnList = "status, enabled, created_at, id")
 })
 @Data
 @NoArgsConstructor
@@ -86,6 +88,9 @@ public class Product {
     @Column
     private Integer reviewCount = 0; // 评价数量
     
+    @Column
+    private Boolean flashSale = false; // 是否处于秒杀模式（库存由内存计数器管理）
+    
     // 关联商户（商品所属的商户）
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "merchant_id", nullable = false)
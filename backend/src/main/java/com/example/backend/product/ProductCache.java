@@ -0,0 +1,85 @@
+package com.example.backend.product;
+
+import com.example.backend.common.TransactionCallbacks;
+import com.example.backend.product.dto.ProductResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 商品详情本地缓存
+ * 基于 Caffeine（W-TinyLFU 准入），按条目数和写入时间双重限制；
+ * 缓存的是响应DTO而非实体，调用方不得修改返回的对象
+ */
+@Component
+public class ProductCache {
+
+    @Value("${app.cache.product.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${app.cache.product.expire-after-write:5m}")
+    private Duration expireAfterWrite;
+
+    private Cache<Long, ProductResponse> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 读穿缓存：未命中时调用 loader 加载并写入缓存，loader 抛出的异常原样抛出且不缓存
+     */
+    public ProductResponse get(Long productId, Function<Long, ProductResponse> loader) {
+        return cache.get(productId, loader);
+    }
+
+    /**
+     * 商品变更后失效缓存
+     * 立即失效一次，并在事务提交后再失效一次，防止提交前被并发读请求以旧数据回填
+     */
+    public void evict(Long productId) {
+        cache.invalidate(productId);
+        TransactionCallbacks.afterCommit(() -> cache.invalidate(productId));
+    }
+
+    /**
+     * 批量失效缓存
+     */
+    public void evictAll(Collection<Long> productIds) {
+        cache.invalidateAll(productIds);
+        TransactionCallbacks.afterCommit(() -> cache.invalidateAll(productIds));
+    }
+
+    /**
+     * 缓存统计信息（命中、未命中、淘汰等），用于评估缓存容量
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("maximumSize", maximumSize);
+        result.put("expireAfterWriteSeconds", expireAfterWrite.toSeconds());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("loadSuccessCount", stats.loadSuccessCount());
+        result.put("loadFailureCount", stats.loadFailureCount());
+        result.put("averageLoadPenaltyMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.backend.product;
 
 import com.example.backend.product.dto.CreateProductRequest;
 import com.example.backend.product.dto.ProductResponse;
+import com.example.backend.product.dto.ProductSummary;
 import com.example.backend.product.dto.UpdateProductRequest;
 import com.example.backend.product.exception.ProductNotFoundException;
 import com.example.backend.product.exception.UnauthorizedProductAccessException;
@@ -13,6 +14,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -53,6 +55,15 @@ public class ProductController {
         }
     }
     
+    /**
+     * 商品详情缓存统计（仅管理员）
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(productService.getCacheStats());
+    }
+    
     /**
      * 根据ID获取商品
      */
@@ -70,13 +81,19 @@ public class ProductController {
     
     /**
      * 获取所有商品（分页）
+     * 传入 cursor 参数（首页传空值）时切换为游标分页，按创建时间倒序，忽略 page/sortBy/sortDir
      */
     @GetMapping
-    public ResponseEntity<Page<ProductResponse>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDir) {
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(required = false) String cursor) {
+        
+        if (cursor != null) {
+            return ResponseEntity.ok(productService.getAllProducts(cursor, size));
+        }
         
         Sort sort = sortDir.equalsIgnoreCase("ASC") ? 
             Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
@@ -88,19 +105,25 @@ public class ProductController {
     
     /**
      * 获取所有上架商品（分页）
+     * 传入 cursor 参数（首页传空值）时切换为游标分页，按创建时间倒序，忽略 page/sortBy/sortDir
      */
     @GetMapping("/active")
-    public ResponseEntity<Page<ProductResponse>> getActiveProducts(
+    public ResponseEntity<?> getActiveProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDir) {
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(required = false) String cursor) {
+        
+        if (cursor != null) {
+            return ResponseEntity.ok(productService.getActiveProducts(cursor, size));
+        }
         
         Sort sort = sortDir.equalsIgnoreCase("ASC") ? 
             Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<ProductResponse> products = productService.getActiveProducts(pageable);
+        Page<ProductSummary> products = productService.getActiveProducts(pageable);
         return ResponseEntity.ok(products);
     }
     
@@ -131,13 +154,13 @@ public class ProductController {
      * 根据分类获取商品（分页）
      */
     @GetMapping("/category/{category}")
-    public ResponseEntity<Page<ProductResponse>> getProductsByCategory(
+    public ResponseEntity<Page<ProductSummary>> getProductsByCategory(
             @PathVariable String category,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<ProductResponse> products = productService.getProductsByCategory(category, pageable);
+        Page<ProductSummary> products = productService.getProductsByCategory(category, pageable);
         return ResponseEntity.ok(products);
     }
     
@@ -145,13 +168,14 @@ public class ProductController {
      * 搜索商品
      */
     @GetMapping("/search")
-    public ResponseEntity<Page<ProductResponse>> searchProducts(
+    public ResponseEntity<Page<ProductSummary>> searchProducts(
             @RequestParam String keyword,
+            @RequestParam(defaultValue = "AND") ProductSearchIndex.Operator operator,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<ProductResponse> products = productService.searchProducts(keyword, pageable);
+        Page<ProductSummary> products = productService.searchProducts(keyword, operator, pageable);
         return ResponseEntity.ok(products);
     }
     
@@ -159,14 +183,14 @@ public class ProductController {
      * 根据价格范围搜索商品
      */
     @GetMapping("/price-range")
-    public ResponseEntity<Page<ProductResponse>> getProductsByPriceRange(
+    public ResponseEntity<Page<ProductSummary>> getProductsByPriceRange(
             @RequestParam BigDecimal minPrice,
             @RequestParam BigDecimal maxPrice,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<ProductResponse> products = productService.getProductsByPriceRange(minPrice, maxPrice, pageable);
+        Page<ProductSummary> products = productService.getProductsByPriceRange(minPrice, maxPrice, pageable);
         return ResponseEntity.ok(products);
     }
     
@@ -260,5 +284,15 @@ public class ProductController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
         }
     }
+    
+    /**
+     * 开启/结束秒杀（管理员）
+     */
+    @PatchMapping("/{id}/flash-sale")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductResponse> setFlashSale(
+            @PathVariable Long id,
+            @RequestParam boolean enabled) {
+        return ResponseEntity.ok(productService.setFlashSale(id, enabled));
+    }
 }
-
@@ -1,12 +1,16 @@
 package com.example.backend.product;
 
+import com.example.backend.product.dto.ProductSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,13 +21,30 @@ import java.util.Optional;
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
     /**
-     * 根据商户ID查找商品
+     * 商品列表摘要投影（字段顺序与 ProductSummary 构造函数一致）
      */
+    String SUMMARY_SELECT = "SELECT new com.example.backend.product.dto.ProductSummary(" +
+            "p.id, p.name, p.price, p.originalPrice, p.imageUrl, p.stock, p.rating, p.status, p.brand, " +
+            "m.id, COALESCE(m.businessName, m.username), p.createdAt) " +
+            "FROM Product p JOIN p.merchant m ";
+    
+    /**
+     * 分页查找全部商品（一并抓取商户）
+     */
+    @Override
+    @EntityGraph(attributePaths = "merchant")
+    Page<Product> findAll(Pageable pageable);
+    
+    /**
+     * 根据商户ID查找商品（一并抓取商户）
+     */
+    @EntityGraph(attributePaths = "merchant")
     List<Product> findByMerchantId(Long merchantId);
     
     /**
-     * 根据商户ID分页查找商品
+     * 根据商户ID分页查找商品（一并抓取商户）
      */
+    @EntityGraph(attributePaths = "merchant")
     Page<Product> findByMerchantId(Long merchantId, Pageable pageable);
     
     /**
@@ -62,24 +83,51 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findByIdAndMerchantId(Long id, Long merchantId);
     
     /**
-     * 搜索商品（根据名称或描述）
+     * 搜索商品摘要（根据名称或描述模糊匹配，仅在搜索索引未就绪时使用）
      */
-    @Query("SELECT p FROM Product p WHERE " +
+    @Query(value = SUMMARY_SELECT + "WHERE " +
+           "(LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
+           "p.status = :status AND p.enabled = true",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE " +
            "(LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
            "p.status = :status AND p.enabled = true")
-    Page<Product> searchProducts(@Param("keyword") String keyword, 
-                                 @Param("status") ProductStatus status, 
-                                 Pageable pageable);
+    Page<ProductSummary> searchProducts(@Param("keyword") String keyword, 
+                                        @Param("status") ProductStatus status, 
+                                        Pageable pageable);
+    
+    /**
+     * 根据价格范围查找商品摘要
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE p.price BETWEEN :minPrice AND :maxPrice AND p.status = :status AND p.enabled = true",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice AND p.status = :status AND p.enabled = true")
+    Page<ProductSummary> findByPriceRange(@Param("minPrice") java.math.BigDecimal minPrice,
+                                          @Param("maxPrice") java.math.BigDecimal maxPrice,
+                                          @Param("status") ProductStatus status,
+                                          Pageable pageable);
     
     /**
-     * 根据价格范围查找商品
+     * 根据状态查找启用商品摘要（分页）
      */
-    @Query("SELECT p FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice AND p.status = :status AND p.enabled = true")
-    Page<Product> findByPriceRange(@Param("minPrice") java.math.BigDecimal minPrice,
-                                   @Param("maxPrice") java.math.BigDecimal maxPrice,
-                                   @Param("status") ProductStatus status,
-                                   Pageable pageable);
+    @Query(value = SUMMARY_SELECT + "WHERE p.status = :status AND p.enabled = true",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.status = :status AND p.enabled = true")
+    Page<ProductSummary> findSummariesByStatus(@Param("status") ProductStatus status, Pageable pageable);
+    
+    /**
+     * 根据分类和状态查找商品摘要（分页）
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE p.category = :category AND p.status = :status",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.category = :category AND p.status = :status")
+    Page<ProductSummary> findSummariesByCategoryAndStatus(@Param("category") String category,
+                                                          @Param("status") ProductStatus status,
+                                                          Pageable pageable);
+    
+    /**
+     * 根据ID批量查找商品摘要（搜索结果回表）
+     */
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<ProductSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
     
     /**
      * 查找启用的商品
@@ -95,5 +143,68 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * 根据商户ID和启用状态查找商品
      */
     List<Product> findByMerchantIdAndEnabledTrue(Long merchantId);
-}
+    
+    /**
+     * 游标分页：第一页，按创建时间、ID倒序（一并抓取商户）
+     */
+    @EntityGraph(attributePaths = "merchant")
+    List<Product> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+    
+    /**
+     * 游标分页：定位到 (createdAt, id) 之后继续按倒序读取（一并抓取商户）
+     */
+    @EntityGraph(attributePaths = "merchant")
+    @Query("SELECT p FROM Product p WHERE p.createdAt <= :createdAt AND " +
+           "(p.createdAt < :createdAt OR p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findAllBefore(@Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                Pageable pageable);
+    
+    /**
+     * 游标分页：上架商品摘要第一页，按创建时间、ID倒序
+     */
+    @Query(SUMMARY_SELECT + "WHERE p.status = :status AND p.enabled = true " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductSummary> findSummariesByStatusFirst(@Param("status") ProductStatus status, Pageable pageable);
+    
+    /**
+     * 游标分页：定位到 (createdAt, id) 之后继续读取上架商品摘要
+     */
+    @Query(SUMMARY_SELECT + "WHERE p.status = :status AND p.enabled = true AND " +
+           "p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductSummary> findSummariesByStatusBefore(@Param("status") ProductStatus status,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+    
+    /**
+     * 按ID批量加载商品及其商户（下单时一次查询取出订单涉及的全部商品）
+     */
+    @Query("SELECT p FROM Product p JOIN FETCH p.merchant WHERE p.id IN :ids")
+    List<Product> findWithMerchantByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 在给定商品中查找处于指定状态的商品ID
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids AND p.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") ProductStatus status);
+    
+    /**
+     * 按ID顺序分批查找可搜索商品（用于构建搜索索引）
+     */
+    List<Product> findByIdGreaterThanAndStatusAndEnabledTrueOrderByIdAsc(Long id, ProductStatus status, Pageable pageable);
+    
+    /**
+     * 查找处于秒杀模式的商品ID（各实例据此同步秒杀计数器）
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.flashSale = true")
+    List<Long> findFlashSaleIds();
 
+    /**
+     * 批量查询商品名称：(id, name)
+     */
+    @Query("SELECT p.id, p.name FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+}
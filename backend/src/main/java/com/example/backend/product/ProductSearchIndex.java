@@ -0,0 +1,358 @@
+package com.example.backend.product;
+
+import com.example.backend.common.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 商品搜索倒排索引
+ * 对名称、描述、品牌、分类分词后常驻内存，启动时从数据库构建，
+ * 商品增删改后在事务提交时同步更新；搜索只返回排序后的商品ID，由调用方回表加载当前页。
+ * 重建时在新索引上加载，期间提交的更新同时记录下来，加载完成后按顺序重放到新索引再整体替换，
+ * 重建读到的旧数据不会覆盖期间提交的更新
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    /** 启动构建时每批加载的商品数 */
+    private static final int BUILD_BATCH_SIZE = 500;
+
+    /** 单个查询词做前缀扩展时最多匹配的索引词数 */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    /** 前缀匹配（非完整词命中）的得分折扣 */
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float BRAND_WEIGHT = 2.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    /**
+     * 多个查询词的组合方式
+     * AND: 必须命中全部查询词
+     * OR: 命中任意查询词即可
+     */
+    public enum Operator {
+        AND,
+        OR
+    }
+
+    /**
+     * 搜索结果：当前页的商品ID（按相关度排序）及命中总数
+     */
+    public record SearchResult(List<Long> ids, int total) {
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    /** 当前使用的索引，重建完成时整体替换；更新在 this 上串行执行 */
+    private volatile Index index = new Index();
+
+    /** 重建期间提交的更新（商品ID, 词表），不在重建时为 null */
+    private List<Map.Entry<Long, Map<String, Float>>> pendingUpdates;
+
+    /** 同一时间只允许一次重建 */
+    private final Object rebuildLock = new Object();
+
+    private volatile boolean ready = false;
+
+    /**
+     * 倒排表和正排表
+     */
+    private static final class Index {
+
+        /** 倒排表：词 -> (商品ID -> 字段加权词频)，按词排序以支持前缀查询 */
+        private final ConcurrentSkipListMap<String, ConcurrentHashMap<Long, Float>> postings = new ConcurrentSkipListMap<>();
+
+        /** 正排表：商品ID -> 该商品包含的词，用于更新/删除时清理倒排表 */
+        private final ConcurrentHashMap<Long, Map<String, Float>> documents = new ConcurrentHashMap<>();
+
+        /**
+         * 用新的词表替换商品原有的索引项；空词表表示移除
+         */
+        private void apply(Long productId, Map<String, Float> terms) {
+            Map<String, Float> previous = terms.isEmpty() ? documents.remove(productId) : documents.put(productId, terms);
+            if (previous != null) {
+                for (String term : previous.keySet()) {
+                    if (terms.containsKey(term)) {
+                        continue;
+                    }
+                    ConcurrentHashMap<Long, Float> docs = postings.get(term);
+                    if (docs != null) {
+                        docs.remove(productId);
+                        if (docs.isEmpty()) {
+                            postings.remove(term);
+                        }
+                    }
+                }
+            }
+            terms.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(productId, weight));
+        }
+    }
+
+    /**
+     * 应用启动后按ID分批加载可搜索商品构建新索引，重放加载期间提交的更新后替换当前索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            synchronized (this) {
+                pendingUpdates = new ArrayList<>();
+            }
+
+            Index fresh = new Index();
+            boolean loaded = false;
+            try {
+                long lastId = 0L;
+                List<Product> batch;
+                do {
+                    batch = productRepository.findByIdGreaterThanAndStatusAndEnabledTrueOrderByIdAsc(
+                            lastId, ProductStatus.ACTIVE, PageRequest.of(0, BUILD_BATCH_SIZE));
+                    for (Product product : batch) {
+                        fresh.apply(product.getId(), analyze(product));
+                        lastId = product.getId();
+                    }
+                } while (batch.size() == BUILD_BATCH_SIZE);
+                loaded = true;
+            } finally {
+                synchronized (this) {
+                    if (loaded) {
+                        pendingUpdates.forEach(update -> fresh.apply(update.getKey(), update.getValue()));
+                        index = fresh;
+                    }
+                    pendingUpdates = null;
+                }
+            }
+
+            ready = true;
+            log.info("商品搜索索引构建完成: {} 个商品, {} 个词, 耗时 {} ms",
+                    fresh.documents.size(), fresh.postings.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * 索引是否已构建完成（未完成前调用方应回退到数据库查询）
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 商品新增或变更后更新索引；不可搜索（下架、禁用、缺货等）的商品会被移出索引。
+     * 在事务中调用时，索引在事务提交后才生效
+     */
+    public void index(Product product) {
+        Long id = product.getId();
+        Map<String, Float> terms = isSearchable(product) ? analyze(product) : null;
+        TransactionCallbacks.afterCommit(() -> {
+            if (terms == null) {
+                apply(id, Collections.emptyMap());
+            } else {
+                apply(id, terms);
+            }
+        });
+    }
+
+    /**
+     * 商品删除后移出索引
+     */
+    public void remove(Long productId) {
+        TransactionCallbacks.afterCommit(() -> apply(productId, Collections.emptyMap()));
+    }
+
+    /**
+     * 搜索商品，返回按相关度降序（同分按ID降序）排列的当前页商品ID
+     */
+    public SearchResult search(String keyword, Operator operator, int offset, int limit) {
+        List<String> queryTerms = tokenize(keyword);
+        if (queryTerms.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+
+        Index snapshot = index;
+        int totalDocs = Math.max(snapshot.documents.size(), 1);
+        Map<Long, Float> scores = null;
+
+        for (String queryTerm : queryTerms) {
+            Map<Long, Float> termScores = scoreTerm(snapshot, queryTerm, totalDocs);
+            if (scores == null) {
+                scores = termScores;
+            } else if (operator == Operator.AND) {
+                Map<Long, Float> smaller = scores.size() <= termScores.size() ? scores : termScores;
+                Map<Long, Float> larger = smaller == scores ? termScores : scores;
+                Map<Long, Float> merged = new HashMap<>(smaller.size() * 2);
+                for (Map.Entry<Long, Float> entry : smaller.entrySet()) {
+                    Float other = larger.get(entry.getKey());
+                    if (other != null) {
+                        merged.put(entry.getKey(), entry.getValue() + other);
+                    }
+                }
+                scores = merged;
+            } else {
+                Map<Long, Float> target = scores;
+                termScores.forEach((docId, score) -> target.merge(docId, score, Float::sum));
+            }
+            if (operator == Operator.AND && scores.isEmpty()) {
+                return new SearchResult(List.of(), 0);
+            }
+        }
+
+        return new SearchResult(topK(scores, offset, limit), scores.size());
+    }
+
+    /**
+     * 单个查询词的得分：完整词命中 + 有限个前缀扩展词命中，按 IDF 加权
+     */
+    private Map<Long, Float> scoreTerm(Index snapshot, String queryTerm, int totalDocs) {
+        Map<Long, Float> termScores = new HashMap<>();
+        ConcurrentNavigableMap<String, ConcurrentHashMap<Long, Float>> matches =
+                snapshot.postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false);
+
+        int expansions = 0;
+        for (Map.Entry<String, ConcurrentHashMap<Long, Float>> entry : matches.entrySet()) {
+            boolean exact = entry.getKey().equals(queryTerm);
+            if (!exact && ++expansions > MAX_PREFIX_EXPANSIONS) {
+                continue;
+            }
+            Map<Long, Float> docs = entry.getValue();
+            float idf = (float) Math.log(1.0 + (double) totalDocs / Math.max(docs.size(), 1));
+            float factor = exact ? idf : idf * PREFIX_MATCH_FACTOR;
+            // 同一商品被多个扩展词命中时只取最高分，避免短前缀刷分
+            docs.forEach((docId, weight) -> termScores.merge(docId, weight * factor, Math::max));
+        }
+        return termScores;
+    }
+
+    /**
+     * 只维护 offset + limit 大小的小顶堆，避免对全部命中结果排序
+     */
+    private List<Long> topK(Map<Long, Float> scores, int offset, int limit) {
+        int k = offset + limit;
+        if (k <= 0 || offset >= scores.size()) {
+            return List.of();
+        }
+
+        Comparator<Map.Entry<Long, Float>> byRelevance = Map.Entry.<Long, Float>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Long, Float>> heap = new PriorityQueue<>(Math.min(k, scores.size()), byRelevance);
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            if (heap.size() < k) {
+                heap.offer(entry);
+            } else if (byRelevance.compare(entry, heap.peek()) > 0) {
+                heap.poll();
+                heap.offer(entry);
+            }
+        }
+
+        List<Long> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ranked.add(heap.poll().getKey());
+        }
+        Collections.reverse(ranked);
+        return ranked.subList(Math.min(offset, ranked.size()), ranked.size());
+    }
+
+    /**
+     * 更新当前索引；重建进行中时同时记录，待新索引加载完成后重放
+     */
+    private synchronized void apply(Long productId, Map<String, Float> terms) {
+        index.apply(productId, terms);
+        if (pendingUpdates != null) {
+            pendingUpdates.add(Map.entry(productId, terms));
+        }
+    }
+
+    private boolean isSearchable(Product product) {
+        return product.getStatus() == ProductStatus.ACTIVE && Boolean.TRUE.equals(product.getEnabled());
+    }
+
+    /**
+     * 计算商品各字段分词后的加权词频
+     */
+    private Map<String, Float> analyze(Product product) {
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, product.getName(), NAME_WEIGHT);
+        addField(terms, product.getBrand(), BRAND_WEIGHT);
+        addField(terms, product.getCategory(), CATEGORY_WEIGHT);
+        addField(terms, product.getDescription(), DESCRIPTION_WEIGHT);
+        return terms;
+    }
+
+    private void addField(Map<String, Float> terms, String text, float weight) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        // 按字段长度归一化，避免长描述中的词压过名称
+        float norm = weight / (float) Math.sqrt(tokens.size());
+        for (String token : tokens) {
+            terms.merge(token, norm, Float::sum);
+        }
+    }
+
+    /**
+     * 分词：字母数字按连续串切分并转小写；中日韩文字逐字切分
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < lower.length(); ) {
+            int codePoint = lower.codePointAt(i);
+            int width = Character.charCount(codePoint);
+            if (isIdeographic(codePoint)) {
+                if (start >= 0) {
+                    tokens.add(lower.substring(start, i));
+                    start = -1;
+                }
+                tokens.add(lower.substring(i, i + width));
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+            i += width;
+        }
+        if (start >= 0) {
+            tokens.add(lower.substring(start));
+        }
+        return tokens;
+    }
+
+    private static boolean isIdeographic(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.backend.product;
 
+import com.example.backend.common.KeysetCursor;
+import com.example.backend.common.TransactionCallbacks;
+import com.example.backend.common.dto.CursorPage;
 import com.example.backend.product.dto.CreateProductRequest;
 import com.example.backend.product.dto.ProductResponse;
+import com.example.backend.product.dto.ProductSummary;
 import com.example.backend.product.dto.UpdateProductRequest;
+import com.example.backend.product.exception.FlashSaleException;
 import com.example.backend.product.exception.ProductNotFoundException;
 import com.example.backend.product.exception.UnauthorizedProductAccessException;
 import com.example.backend.user.User;
@@ -10,12 +15,18 @@ import com.example.backend.user.UserRepository;
 import com.example.backend.user.exception.UserNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -31,6 +42,18 @@ public class ProductService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    
+    @Autowired
+    private ProductCache productCache;
+    
+    @Autowired
+    private ProductViewCounter productViewCounter;
+    
+    @Autowired
+    private FlashSaleStock flashSaleStock;
+    
     /**
      * 创建商品（商户）
      */
@@ -67,22 +90,24 @@ public class ProductService {
         product.setReviewCount(0);
         
         Product savedProduct = productRepository.save(product);
+        productSearchIndex.index(savedProduct);
         return ProductResponse.fromProduct(savedProduct);
     }
     
     /**
-     * 根据ID获取商品
+     * 根据ID获取商品（优先读取本地缓存）
      */
     @Transactional(readOnly = true)
     public ProductResponse getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException("商品不存在，ID: " + id));
+        ProductResponse product = productCache.get(id, productId -> productRepository.findById(productId)
+                .map(ProductResponse::fromProduct)
+                .orElseThrow(() -> new ProductNotFoundException("商品不存在，ID: " + productId)));
         
-        // 增加浏览次数
-        product.setViewCount(product.getViewCount() + 1);
-        productRepository.save(product);
+        // 增加浏览次数（内存累加，定时批量写回）
+        productViewCounter.increment(id);
         
-        return ProductResponse.fromProduct(product);
+        // 缓存中是数据库库存，秒杀中的租借库存在读取时加上
+        return withLeasedStock(product);
     }
     
     /**
@@ -91,16 +116,48 @@ public class ProductService {
     @Transactional(readOnly = true)
     public Page<ProductResponse> getAllProducts(Pageable pageable) {
         return productRepository.findAll(pageable)
-                .map(ProductResponse::fromProduct);
+                .map(ProductResponse::fromProduct)
+                .map(this::withLeasedStock);
+    }
+    
+    /**
+     * 获取所有商品（游标分页，按创建时间倒序，不统计总数）
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> getAllProducts(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = CursorPage.clampSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Product> rows = after == null
+                ? productRepository.findAllByOrderByCreatedAtDescIdDesc(limit)
+                : productRepository.findAllBefore(after.createdAt(), after.id(), limit);
+        return CursorPage.of(rows, pageSize, this::cursorOf,
+                product -> withLeasedStock(ProductResponse.fromProduct(product)));
     }
     
     /**
-     * 获取所有上架商品（分页）
+     * 获取所有上架商品摘要（分页）
      */
     @Transactional(readOnly = true)
-    public Page<ProductResponse> getActiveProducts(Pageable pageable) {
-        return productRepository.findByStatusAndEnabledTrue(ProductStatus.ACTIVE, pageable)
-                .map(ProductResponse::fromProduct);
+    public Page<ProductSummary> getActiveProducts(Pageable pageable) {
+        return productRepository.findSummariesByStatus(ProductStatus.ACTIVE, pageable)
+                .map(this::withLeasedStock);
+    }
+    
+    /**
+     * 获取所有上架商品摘要（游标分页，按创建时间倒序，不统计总数）
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ProductSummary> getActiveProducts(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = CursorPage.clampSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<ProductSummary> rows = after == null
+                ? productRepository.findSummariesByStatusFirst(ProductStatus.ACTIVE, limit)
+                : productRepository.findSummariesByStatusBefore(ProductStatus.ACTIVE, after.createdAt(), after.id(), limit);
+        return CursorPage.of(rows, pageSize,
+                summary -> new KeysetCursor(summary.getCreatedAt(), summary.getId()),
+                this::withLeasedStock);
     }
     
     /**
@@ -110,6 +167,7 @@ public class ProductService {
     public List<ProductResponse> getProductsByMerchantId(Long merchantId) {
         return productRepository.findByMerchantId(merchantId).stream()
                 .map(ProductResponse::fromProduct)
+                .map(this::withLeasedStock)
                 .collect(Collectors.toList());
     }
     
@@ -119,34 +177,61 @@ public class ProductService {
     @Transactional(readOnly = true)
     public Page<ProductResponse> getProductsByMerchantId(Long merchantId, Pageable pageable) {
         return productRepository.findByMerchantId(merchantId, pageable)
-                .map(ProductResponse::fromProduct);
+                .map(ProductResponse::fromProduct)
+                .map(this::withLeasedStock);
     }
     
     /**
-     * 根据分类获取商品（分页）
+     * 根据分类获取商品摘要（分页）
      */
     @Transactional(readOnly = true)
-    public Page<ProductResponse> getProductsByCategory(String category, Pageable pageable) {
-        return productRepository.findByCategoryAndStatus(category, ProductStatus.ACTIVE, pageable)
-                .map(ProductResponse::fromProduct);
+    public Page<ProductSummary> getProductsByCategory(String category, Pageable pageable) {
+        return productRepository.findSummariesByCategoryAndStatus(category, ProductStatus.ACTIVE, pageable)
+                .map(this::withLeasedStock);
+    }
+    
+    /**
+     * 搜索商品（默认要求命中全部关键词）
+     */
+    @Transactional(readOnly = true)
+    public Page<ProductSummary> searchProducts(String keyword, Pageable pageable) {
+        return searchProducts(keyword, ProductSearchIndex.Operator.AND, pageable);
     }
     
     /**
      * 搜索商品
+     * 通过内存倒排索引得到按相关度排序的商品ID，只回表加载当前页；索引未就绪时回退到数据库模糊查询
      */
     @Transactional(readOnly = true)
-    public Page<ProductResponse> searchProducts(String keyword, Pageable pageable) {
-        return productRepository.searchProducts(keyword, ProductStatus.ACTIVE, pageable)
-                .map(ProductResponse::fromProduct);
+    public Page<ProductSummary> searchProducts(String keyword, ProductSearchIndex.Operator operator, Pageable pageable) {
+        if (!productSearchIndex.isReady()) {
+            return productRepository.searchProducts(keyword, ProductStatus.ACTIVE, pageable)
+                    .map(this::withLeasedStock);
+        }
+        
+        ProductSearchIndex.SearchResult result = productSearchIndex.search(
+                keyword, operator, (int) pageable.getOffset(), pageable.getPageSize());
+        if (result.ids().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, result.total());
+        }
+        
+        Map<Long, ProductSummary> loaded = productRepository.findSummariesByIdIn(result.ids()).stream()
+                .collect(Collectors.toMap(ProductSummary::getId, Function.identity()));
+        List<ProductSummary> content = result.ids().stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .map(this::withLeasedStock)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, result.total());
     }
     
     /**
-     * 根据价格范围搜索商品
+     * 根据价格范围搜索商品摘要
      */
     @Transactional(readOnly = true)
-    public Page<ProductResponse> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+    public Page<ProductSummary> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
         return productRepository.findByPriceRange(minPrice, maxPrice, ProductStatus.ACTIVE, pageable)
-                .map(ProductResponse::fromProduct);
+                .map(this::withLeasedStock);
     }
     
     /**
@@ -170,6 +255,7 @@ public class ProductService {
         }
         
         if (request.getStock() != null) {
+            checkNotInFlashSale(product);
             product.setStock(request.getStock());
             // 如果库存为0，自动设置为缺货状态
             if (request.getStock() == 0 && product.getStatus() == ProductStatus.ACTIVE) {
@@ -218,6 +304,8 @@ public class ProductService {
         }
         
         Product updatedProduct = productRepository.save(product);
+        productSearchIndex.index(updatedProduct);
+        productCache.evict(productId);
         return ProductResponse.fromProduct(updatedProduct);
     }
     
@@ -228,6 +316,8 @@ public class ProductService {
         Product product = productRepository.findByIdAndMerchantId(productId, merchantId)
                 .orElseThrow(() -> new ProductNotFoundException("商品不存在或您无权访问该商品"));
         productRepository.delete(product);
+        productSearchIndex.remove(productId);
+        productCache.evict(productId);
     }
     
     /**
@@ -238,6 +328,8 @@ public class ProductService {
             throw new ProductNotFoundException("商品不存在，ID: " + productId);
         }
         productRepository.deleteById(productId);
+        productSearchIndex.remove(productId);
+        productCache.evict(productId);
     }
     
     /**
@@ -246,6 +338,7 @@ public class ProductService {
     public ProductResponse updateStock(Long productId, Integer quantity) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ProductNotFoundException("商品不存在，ID: " + productId));
+        checkNotInFlashSale(product);
         
         int newStock = product.getStock() + quantity;
         if (newStock < 0) {
@@ -260,6 +353,8 @@ public class ProductService {
         }
         
         Product updatedProduct = productRepository.save(product);
+        productSearchIndex.index(updatedProduct);
+        productCache.evict(productId);
         return ProductResponse.fromProduct(updatedProduct);
     }
     
@@ -272,7 +367,75 @@ public class ProductService {
         
         product.setEnabled(!product.getEnabled());
         Product updatedProduct = productRepository.save(product);
+        productSearchIndex.index(updatedProduct);
+        productCache.evict(productId);
         return ProductResponse.fromProduct(updatedProduct);
     }
+    
+    /**
+     * 开启/结束秒杀（管理员）
+     * 开启后库存由各实例的内存计数器从数据库分批租借，结束时未售出的租借库存归还数据库；
+     * 当前实例提交后立即生效，其他实例在下一次同步时生效
+     */
+    public ProductResponse setFlashSale(Long productId, boolean enabled) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ProductNotFoundException("商品不存在，ID: " + productId));
+        
+        product.setFlashSale(enabled);
+        Product updatedProduct = productRepository.save(product);
+        TransactionCallbacks.afterCommit(() -> {
+            if (enabled) {
+                flashSaleStock.start(productId);
+            } else {
+                flashSaleStock.stop(productId);
+            }
+        });
+        productCache.evict(productId);
+        return ProductResponse.fromProduct(updatedProduct);
+    }
+    
+    /**
+     * 商品详情缓存统计
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<String, Object> getCacheStats() {
+        return productCache.stats();
+    }
+    
+    /**
+     * 以数据库中的秒杀开关为准：其他实例可能尚未同步，不能只看本实例的计数器
+     */
+    private void checkNotInFlashSale(Product product) {
+        if (Boolean.TRUE.equals(product.getFlashSale()) || flashSaleStock.isActive(product.getId())) {
+            throw new FlashSaleException("商品秒杀进行中，请先结束秒杀再调整库存");
+        }
+    }
+    
+    /**
+     * 秒杀进行中时 products.stock 只是尚未租出的部分，返回时加上本实例租借到、尚未售出的库存；
+     * 其他实例租借的库存本实例看不到，显示值可能偏少，但不会多于实际可售数量
+     */
+    private ProductResponse withLeasedStock(ProductResponse product) {
+        int leased = flashSaleStock.available(product.getId());
+        if (leased <= 0) {
+            return product;
+        }
+        // 缓存中的对象共享，复制后再修改
+        return product.toBuilder()
+                .stock(product.getStock() + leased)
+                .status(product.getStatus() == ProductStatus.OUT_OF_STOCK ? ProductStatus.ACTIVE : product.getStatus())
+                .build();
+    }
+    
+    private ProductSummary withLeasedStock(ProductSummary summary) {
+        int leased = flashSaleStock.available(summary.getId());
+        if (leased > 0) {
+            summary.setStock(summary.getStock() + leased);
+        }
+        return summary;
+    }
+    
+    private KeysetCursor cursorOf(Product product) {
+        return new KeysetCursor(product.getCreatedAt(), product.getId());
+    }
 }
-
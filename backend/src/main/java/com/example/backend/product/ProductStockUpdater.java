@@ -0,0 +1,138 @@
+package com.example.backend.product;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 商品库存批量更新
+ * 一个订单涉及的所有商品合并为一条 UPDATE ... CASE 语句，只需一次数据库往返；
+ * WHERE id IN (...) 按主键顺序加行锁，并发下单不会相互死锁
+ */
+@Component
+public class ProductStockUpdater {
+
+    /** 单条 UPDATE 语句最多包含的商品数 */
+    private static final int MAX_IDS_PER_STATEMENT = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量扣减库存并累加销量，扣减到 0 的上架商品置为缺货。
+     * 只有库存充足的行会被更新；返回 false 表示至少一个商品库存不足，调用方应在事务中调用并抛出异常回滚
+     */
+    public boolean reserve(Map<Long, Integer> quantities) {
+        int expected = 0;
+        int updated = 0;
+        for (List<Map.Entry<Long, Integer>> chunk : chunks(quantities)) {
+            expected += chunk.size();
+            updated += deduct(chunk);
+        }
+        return updated == expected;
+    }
+
+    /**
+     * 批量归还库存，缺货商品恢复为上架
+     */
+    public void restore(Map<Long, Integer> quantities) {
+        for (List<Map.Entry<Long, Integer>> chunk : chunks(quantities)) {
+            List<Object> args = new ArrayList<>();
+            StringBuilder sql = new StringBuilder(
+                    "UPDATE products SET status = CASE WHEN status = 'OUT_OF_STOCK' THEN 'ACTIVE' ELSE status END, stock = stock + ");
+            appendQuantityCase(sql, args, chunk);
+            sql.append(", updated_at = ?");
+            args.add(LocalDateTime.now());
+            appendIdIn(sql, args, chunk);
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+    }
+
+    /**
+     * 秒杀租借：库存充足时一次扣出 quantity 件（不计销量、不改状态，售出后由 addSales 累加销量），
+     * 库存不足时不扣减并返回 false。多个实例并发租借时由行锁和 stock >= ? 条件保证合计不超过库存
+     */
+    public boolean lease(Long productId, int quantity) {
+        return jdbcTemplate.update(
+                "UPDATE products SET stock = stock - ?, updated_at = ? WHERE id = ? AND stock >= ?",
+                quantity, LocalDateTime.now(), productId, quantity) == 1;
+    }
+
+    /**
+     * 归还未售出的秒杀租借库存，并按归还后的库存校正上架/缺货状态（秒杀期间租借不改状态）
+     */
+    public void returnLeased(Long productId, int quantity) {
+        // status 放在最前面赋值，两种数据库下都基于归还前的库存计算
+        jdbcTemplate.update("UPDATE products SET status = CASE"
+                        + " WHEN status = 'ACTIVE' AND stock + ? <= 0 THEN 'OUT_OF_STOCK'"
+                        + " WHEN status = 'OUT_OF_STOCK' AND stock + ? > 0 THEN 'ACTIVE' ELSE status END,"
+                        + " stock = stock + ?, updated_at = ? WHERE id = ?",
+                quantity, quantity, quantity, LocalDateTime.now(), productId);
+    }
+
+    /**
+     * 批量累加秒杀已售出数量到销量
+     */
+    public void addSales(Map<Long, Integer> quantities) {
+        for (List<Map.Entry<Long, Integer>> chunk : chunks(quantities)) {
+            List<Object> args = new ArrayList<>();
+            StringBuilder sql = new StringBuilder("UPDATE products SET sales_count = COALESCE(sales_count, 0) + ");
+            appendQuantityCase(sql, args, chunk);
+            appendIdIn(sql, args, chunk);
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+    }
+
+    private int deduct(List<Map.Entry<Long, Integer>> chunk) {
+        List<Object> args = new ArrayList<>();
+        // status 放在最前面赋值：MySQL 按顺序使用新值，需基于扣减前的库存判断是否售罄
+        StringBuilder sql = new StringBuilder("UPDATE products SET status = CASE WHEN status = 'ACTIVE' AND stock <= ");
+        appendQuantityCase(sql, args, chunk);
+        sql.append(" THEN 'OUT_OF_STOCK' ELSE status END, stock = stock - ");
+        appendQuantityCase(sql, args, chunk);
+        sql.append(", sales_count = COALESCE(sales_count, 0) + ");
+        appendQuantityCase(sql, args, chunk);
+        sql.append(", updated_at = ?");
+        args.add(LocalDateTime.now());
+        appendIdIn(sql, args, chunk);
+        sql.append(" AND stock >= ");
+        appendQuantityCase(sql, args, chunk);
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private List<List<Map.Entry<Long, Integer>>> chunks(Map<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantities.entrySet());
+        List<List<Map.Entry<Long, Integer>>> chunks = new ArrayList<>();
+        for (int from = 0; from < entries.size(); from += MAX_IDS_PER_STATEMENT) {
+            chunks.add(entries.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, entries.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * CASE id WHEN ? THEN ? ... END
+     */
+    private void appendQuantityCase(StringBuilder sql, List<Object> args, List<Map.Entry<Long, Integer>> chunk) {
+        sql.append("CASE id");
+        for (Map.Entry<Long, Integer> entry : chunk) {
+            sql.append(" WHEN ? THEN ?");
+            args.add(entry.getKey());
+            args.add(entry.getValue());
+        }
+        sql.append(" END");
+    }
+
+    private void appendIdIn(StringBuilder sql, List<Object> args, List<Map.Entry<Long, Integer>> chunk) {
+        sql.append(" WHERE id IN (");
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+            args.add(chunk.get(i).getKey());
+        }
+        sql.append(')');
+    }
+}
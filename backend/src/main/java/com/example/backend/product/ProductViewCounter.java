@@ -0,0 +1,122 @@
+package com.example.backend.product;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 商品浏览次数写回缓冲
+ * 浏览时只累加内存计数（每个商品一个 LongAdder），定时合并为一条 UPDATE ... CASE 批量写回数据库，
+ * 应用关闭时再写回一次，避免每次浏览都更新 products 行
+ */
+@Component
+public class ProductViewCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductViewCounter.class);
+
+    /** 单条 UPDATE 语句最多包含的商品数 */
+    private static final int MAX_IDS_PER_STATEMENT = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 当前写入的计数表；写回时整体换成新表，旧表在本次和下一次写回时各排空一次，
+     * 以收集换表瞬间仍持有旧表引用的并发累加
+     */
+    private final AtomicReference<ConcurrentHashMap<Long, LongAdder>> current =
+            new AtomicReference<>(new ConcurrentHashMap<>());
+
+    private ConcurrentHashMap<Long, LongAdder> retired = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次浏览
+     */
+    public void increment(Long productId) {
+        current.get().computeIfAbsent(productId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * 定时写回累计的浏览次数
+     */
+    @Scheduled(fixedDelayString = "${app.product.view-count.flush-interval-ms:10000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * 应用关闭时写回剩余计数
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 将累计的浏览次数批量写回数据库，写入失败的计数放回缓冲等待下次重试
+     */
+    public synchronized void flush() {
+        ConcurrentHashMap<Long, LongAdder> swapped = current.getAndSet(new ConcurrentHashMap<>());
+        Map<Long, Long> deltas = new HashMap<>();
+        drain(retired, deltas);
+        drain(swapped, deltas);
+        retired = swapped;
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(deltas.entrySet());
+        for (int from = 0; from < entries.size(); from += MAX_IDS_PER_STATEMENT) {
+            List<Map.Entry<Long, Long>> chunk = entries.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, entries.size()));
+            try {
+                writeChunk(chunk);
+            } catch (RuntimeException e) {
+                log.warn("商品浏览次数写回失败，{} 个商品的计数将在下次重试: {}", chunk.size(), e.getMessage());
+                ConcurrentHashMap<Long, LongAdder> target = current.get();
+                chunk.forEach(entry -> target.computeIfAbsent(entry.getKey(), id -> new LongAdder()).add(entry.getValue()));
+            }
+        }
+    }
+
+    private void drain(Map<Long, LongAdder> counters, Map<Long, Long> deltas) {
+        counters.forEach((productId, adder) -> {
+            long views = adder.sumThenReset();
+            if (views > 0) {
+                deltas.merge(productId, views, Long::sum);
+            }
+        });
+    }
+
+    /**
+     * UPDATE products SET view_count = COALESCE(view_count, 0) + CASE id WHEN ? THEN ? ... END WHERE id IN (...)
+     */
+    private void writeChunk(List<Map.Entry<Long, Long>> chunk) {
+        StringBuilder sql = new StringBuilder("UPDATE products SET view_count = COALESCE(view_count, 0) + CASE id");
+        List<Object> args = new ArrayList<>(chunk.size() * 3);
+        for (Map.Entry<Long, Long> entry : chunk) {
+            sql.append(" WHEN ? THEN ?");
+            args.add(entry.getKey());
+            args.add(entry.getValue());
+        }
+        sql.append(" ELSE 0 END WHERE id IN (");
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+            args.add(chunk.get(i).getKey());
+        }
+        sql.append(')');
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
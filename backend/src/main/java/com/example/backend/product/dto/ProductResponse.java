@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
  * 商品响应DTO
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProductResponse {
@@ -38,6 +38,7 @@ public class ProductResponse {
     private Integer viewCount;
     private BigDecimal rating;
     private Integer reviewCount;
+    private Boolean flashSale;
     private Long merchantId;
     private String merchantName;
     private LocalDateTime createdAt;
@@ -67,6 +68,7 @@ public class ProductResponse {
                 .viewCount(product.getViewCount())
                 .rating(product.getRating())
                 .reviewCount(product.getReviewCount())
+                .flashSale(product.getFlashSale())
                 .merchantId(product.getMerchant() != null ? product.getMerchant().getId() : null)
                 .merchantName(product.getMerchant() != null ? 
                     (product.getMerchant().getBusinessName() != null ? 
@@ -0,0 +1,33 @@
+package com.example.backend.product.dto;
+
+import com.example.backend.product.ProductStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 商品列表摘要DTO
+ * 由 JPQL 构造表达式直接查询得到，不加载描述、规格等大字段，也不经过实体脏检查；
+ * 字段顺序需与 ProductRepository 中的构造表达式保持一致
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummary {
+
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private BigDecimal originalPrice;
+    private String imageUrl;
+    private Integer stock;
+    private BigDecimal rating;
+    private ProductStatus status;
+    private String brand;
+    private Long merchantId;
+    private String merchantName;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,15 @@
+package com.example.backend.product.exception;
+
+/**
+ * 秒杀活动冲突异常（如活动进行中修改库存）
+ */
+public class FlashSaleException extends RuntimeException {
+    
+    public FlashSaleException(String message) {
+        super(message);
+    }
+    
+    public FlashSaleException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.backend.user;
+
+import com.example.backend.common.TokenBucketLimiter;
+import com.example.backend.user.dto.LoginRequest;
+import com.example.backend.user.exception.LoginThrottledException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 登录入口：先按 IP 和账户限流，再把密码校验（BCrypt，每次数十毫秒 CPU）交给专用的有界线程池。
+ * 撞库等突发登录流量最多占用固定数量的 CPU 线程和排队名额，超出的请求立即返回 429，
+ * 不会占满 Tomcat 工作线程而拖慢商品浏览等其他接口
+ */
+@Component
+public class LoginAdmission {
+
+    private static final String BUSY_MESSAGE = "登录请求过多，请稍后重试";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserActivityTracker activityTracker;
+
+    /** 密码校验线程数，默认为 CPU 核数 */
+    @Value("${app.auth.login.threads:0}")
+    private int threads;
+
+    /** 排队等待校验的最大请求数 */
+    @Value("${app.auth.login.queue-capacity:64}")
+    private int queueCapacity;
+
+    /** 请求排队超过该时间后不再校验，直接返回重试提示 */
+    @Value("${app.auth.login.admission-timeout-ms:2000}")
+    private long admissionTimeoutMs;
+
+    @Value("${app.auth.login.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${app.auth.login.ip.refill-interval:3s}")
+    private Duration ipRefillInterval;
+
+    @Value("${app.auth.login.account.capacity:5}")
+    private int accountCapacity;
+
+    @Value("${app.auth.login.account.refill-interval:30s}")
+    private Duration accountRefillInterval;
+
+    /** 每种限流最多跟踪的 key 数 */
+    @Value("${app.auth.login.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    private TokenBucketLimiter<String> ipLimiter;
+    private TokenBucketLimiter<String> accountLimiter;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        ipLimiter = new TokenBucketLimiter<>(ipCapacity, ipRefillInterval, maxTrackedKeys);
+        accountLimiter = new TokenBucketLimiter<>(accountCapacity, accountRefillInterval, maxTrackedKeys);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 校验登录，clientIp 为请求来源地址
+     */
+    public User login(LoginRequest request, String clientIp) {
+        throttle(ipLimiter.tryAcquire(clientIp));
+        if (request.getEmail() != null) {
+            throttle(accountLimiter.tryAcquire(request.getEmail().trim().toLowerCase(Locale.ROOT)));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(admissionTimeoutMs);
+        CompletableFuture<User> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> {
+                if (System.nanoTime() > deadline) {
+                    throw new LoginThrottledException(BUSY_MESSAGE, 1);
+                }
+                return userService.validateLogin(request);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            throw new LoginThrottledException(BUSY_MESSAGE, 1, e);
+        }
+
+        User user;
+        try {
+            user = result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        // 最后登录时间写回缓冲；user 已脱离持久化上下文，这里只更新返回给调用方的值
+        long now = System.currentTimeMillis();
+        activityTracker.recordLogin(user.getId(), now);
+        user.setLastLoginAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault()));
+        return user;
+    }
+
+    /**
+     * 清除已补满的限流桶
+     */
+    @Scheduled(fixedDelayString = "${app.auth.login.evict-interval-ms:60000}")
+    public void evictIdle() {
+        ipLimiter.evictIdle();
+        accountLimiter.evictIdle();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(admissionTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static void throttle(long waitNanos) {
+        if (waitNanos > 0) {
+            throw new LoginThrottledException(BUSY_MESSAGE,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+        }
+    }
+}
@@ -84,5 +84,9 @@ public class User {
     
     @Column
     private LocalDateTime lastLoginAt;
+    
+    /** 最后访问时间（由 UserActivityTracker 定时写回，有写回间隔的延迟） */
+    @Column
+    private LocalDateTime lastSeenAt;
 }
 
@@ -0,0 +1,167 @@
+package com.example.backend.user;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 用户活动时间写回缓冲（最后登录时间、最后访问时间）
+ * 登录和已认证请求只更新内存中的时间戳，定时合并为 UPDATE ... CASE 批量写回 users 表，
+ * 应用关闭时再写回一次。最后访问时间按 seen-granularity 取粒度，同一用户在粒度内的后续请求只做一次 map 读取。
+ * 写回时取库中值与缓冲值的较大者，多实例各自写回时时间只会前进
+ */
+@Component
+public class UserActivityTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(UserActivityTracker.class);
+
+    /** 单条 UPDATE 语句最多包含的用户数 */
+    private static final int MAX_IDS_PER_STATEMENT = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** 最后访问时间的记录粒度 */
+    @Value("${app.user.activity.seen-granularity:60s}")
+    private Duration seenGranularity;
+
+    private final Buffer logins = new Buffer("last_login_at");
+
+    private final Buffer seen = new Buffer("last_seen_at");
+
+    /**
+     * 记录一次登录（同时视为一次访问）
+     */
+    public void recordLogin(Long userId, long epochMillis) {
+        logins.record(userId, epochMillis, 0);
+        seen.record(userId, epochMillis, 0);
+    }
+
+    /**
+     * 记录一次已认证请求
+     */
+    public void recordSeen(Long userId) {
+        seen.record(userId, System.currentTimeMillis(), seenGranularity.toMillis());
+    }
+
+    /**
+     * 定时写回
+     */
+    @Scheduled(fixedDelayString = "${app.user.activity.flush-interval-ms:10000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * 应用关闭时写回剩余时间戳
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 将缓冲的时间戳批量写回数据库，写入失败的放回缓冲等待下次重试
+     */
+    public synchronized void flush() {
+        logins.flush();
+        seen.flush();
+    }
+
+    /**
+     * 单列的时间戳缓冲，换表和排空方式与 ProductViewCounter 相同
+     */
+    private class Buffer {
+
+        private final String column;
+
+        private final AtomicReference<ConcurrentHashMap<Long, Long>> current =
+                new AtomicReference<>(new ConcurrentHashMap<>());
+
+        private ConcurrentHashMap<Long, Long> retired = new ConcurrentHashMap<>();
+
+        Buffer(String column) {
+            this.column = column;
+        }
+
+        void record(Long userId, long epochMillis, long granularityMillis) {
+            ConcurrentHashMap<Long, Long> target = current.get();
+            Long recorded = target.get(userId);
+            if (recorded != null && epochMillis - recorded < Math.max(granularityMillis, 1)) {
+                return;
+            }
+            target.merge(userId, epochMillis, Math::max);
+        }
+
+        void flush() {
+            ConcurrentHashMap<Long, Long> swapped = current.getAndSet(new ConcurrentHashMap<>());
+            Map<Long, Long> latest = new HashMap<>();
+            drain(retired, latest);
+            drain(swapped, latest);
+            retired = swapped;
+
+            if (latest.isEmpty()) {
+                return;
+            }
+
+            List<Map.Entry<Long, Long>> entries = new ArrayList<>(latest.entrySet());
+            for (int from = 0; from < entries.size(); from += MAX_IDS_PER_STATEMENT) {
+                List<Map.Entry<Long, Long>> chunk = entries.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, entries.size()));
+                try {
+                    writeChunk(chunk);
+                } catch (RuntimeException e) {
+                    log.warn("用户活动时间（{}）写回失败，{} 个用户将在下次重试: {}", column, chunk.size(), e.getMessage());
+                    ConcurrentHashMap<Long, Long> target = current.get();
+                    chunk.forEach(entry -> target.merge(entry.getKey(), entry.getValue(), Math::max));
+                }
+            }
+        }
+
+        /**
+         * 逐条移除并收集；移除时值已被并发更新的条目留在表中，下次排空时收集
+         */
+        private void drain(ConcurrentHashMap<Long, Long> timestamps, Map<Long, Long> latest) {
+            timestamps.forEach((userId, epochMillis) -> {
+                if (timestamps.remove(userId, epochMillis)) {
+                    latest.merge(userId, epochMillis, Math::max);
+                }
+            });
+        }
+
+        /**
+         * UPDATE users SET column = CASE id WHEN ? THEN GREATEST(COALESCE(column, ?), ?) ... END WHERE id IN (...)
+         */
+        private void writeChunk(List<Map.Entry<Long, Long>> chunk) {
+            StringBuilder sql = new StringBuilder("UPDATE users SET ").append(column).append(" = CASE id");
+            List<Object> args = new ArrayList<>(chunk.size() * 4);
+            for (Map.Entry<Long, Long> entry : chunk) {
+                sql.append(" WHEN ? THEN GREATEST(COALESCE(").append(column).append(", ?), ?)");
+                Timestamp timestamp = new Timestamp(entry.getValue());
+                args.add(entry.getKey());
+                args.add(timestamp);
+                args.add(timestamp);
+            }
+            sql.append(" ELSE ").append(column).append(" END WHERE id IN (");
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+                args.add(chunk.get(i).getKey());
+            }
+            sql.append(')');
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+    }
+}
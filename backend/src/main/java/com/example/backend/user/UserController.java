@@ -1,15 +1,19 @@
 package com.example.backend.user;
 
-import com.example.backend.auth.JwtUtil;
+import com.example.backend.auth.IssuedTokens;
+import com.example.backend.auth.TokenService;
 import com.example.backend.user.dto.LoginRequest;
 import com.example.backend.user.dto.RegisterRequest;
 import com.example.backend.user.dto.UpdateUserRequest;
 import com.example.backend.user.dto.UserResponse;
 import com.example.backend.user.exception.InvalidCredentialsException;
+import com.example.backend.user.exception.LoginThrottledException;
 import com.example.backend.user.exception.UserAlreadyExistsException;
 import com.example.backend.user.exception.UserNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -30,7 +34,10 @@ public class UserController {
     private UserService userService;
     
     @Autowired
-    private JwtUtil jwtUtil;
+    private LoginAdmission loginAdmission;
+    
+    @Autowired
+    private TokenService tokenService;
     
     /**
      * 用户注册
@@ -55,16 +62,18 @@ public class UserController {
      * 用户登录
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         try {
-            User user = userService.validateLogin(request);
+            User user = loginAdmission.login(request, httpRequest.getRemoteAddr());
             UserResponse userResponse = UserResponse.fromUser(user);
             
-            // 生成JWT token
-            String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name());
+            // 签发短期访问令牌和刷新令牌
+            IssuedTokens tokens = tokenService.issue(user);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("token", token);
+            response.put("token", tokens.accessToken());
+            response.put("refreshToken", tokens.refreshToken());
+            response.put("expiresIn", tokens.expiresIn());
             response.put("user", userResponse);
             
             return ResponseEntity.ok(response);
@@ -72,6 +81,12 @@ public class UserController {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        } catch (LoginThrottledException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "登录失败: " + e.getMessage());
@@ -1,5 +1,6 @@
 package com.example.backend.user;
 
+import com.example.backend.auth.TokenService;
 import com.example.backend.user.dto.LoginRequest;
 import com.example.backend.user.dto.RegisterRequest;
 import com.example.backend.user.dto.UpdateUserRequest;
@@ -8,11 +9,11 @@ import com.example.backend.user.exception.InvalidCredentialsException;
 import com.example.backend.user.exception.UserAlreadyExistsException;
 import com.example.backend.user.exception.UserNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,6 +30,12 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private TokenService tokenService;
+    
+    @Value("${app.security.bcrypt-strength:10}")
+    private int bcryptStrength;
+    
     /**
      * 用户注册
      */
@@ -70,7 +77,7 @@ public class UserService {
     }
     
     /**
-     * 用户登录验证
+     * 用户登录验证（最后登录时间由 LoginAdmission 记录到 UserActivityTracker，不在此写库）
      */
     public User validateLogin(LoginRequest request) {
         User user = userRepository.findByEmail(request.getEmail())
@@ -84,9 +91,10 @@ public class UserService {
             throw new InvalidCredentialsException("账户已被禁用");
         }
         
-        // 更新最后登录时间
-        user.setLastLoginAt(LocalDateTime.now());
-        userRepository.save(user);
+        // BCrypt 强度调整后，借登录时的明文密码重新哈希
+        if (needsRehash(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(request.getPassword()));
+        }
         
         return user;
     }
@@ -160,6 +168,8 @@ public class UserService {
         
         if (request.getPassword() != null && !request.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
+            // 修改密码后已签发的令牌全部失效
+            tokenService.revokeAll(id);
         }
         
         if (request.getFirstName() != null) {
@@ -214,6 +224,7 @@ public class UserService {
         if (!userRepository.existsById(id)) {
             throw new UserNotFoundException("用户不存在，ID: " + id);
         }
+        tokenService.revokeAll(id);
         userRepository.deleteById(id);
     }
     
@@ -224,8 +235,23 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("用户不存在，ID: " + id));
         user.setEnabled(!user.getEnabled());
+        if (!user.getEnabled()) {
+            // 禁用账户后已签发的令牌全部失效
+            tokenService.revokeAll(id);
+        }
         User updatedUser = userRepository.save(user);
         return UserResponse.fromUser(updatedUser);
     }
+    
+    /**
+     * 密码哈希是否与当前 BCrypt 强度不一致（upgradeEncoding 只处理强度提高的情况，调低强度同样重新哈希）
+     */
+    private boolean needsRehash(String encodedPassword) {
+        if (passwordEncoder.upgradeEncoding(encodedPassword)) {
+            return true;
+        }
+        // BCrypt 格式：$2a$10$...，第 4、5 位为强度
+        return encodedPassword != null && encodedPassword.length() > 7 && encodedPassword.startsWith("$2")
+                && !encodedPassword.startsWith(String.format("$%02d$", bcryptStrength), 3);
+    }
 }
-
@@ -36,6 +36,7 @@ public class UserResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime lastLoginAt;
+    private LocalDateTime lastSeenAt;
     
     /**
      * 从User实体转换为UserResponse
@@ -60,6 +61,7 @@ public class UserResponse {
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt())
                 .lastLoginAt(user.getLastLoginAt())
+                .lastSeenAt(user.getLastSeenAt())
                 .build();
     }
 }
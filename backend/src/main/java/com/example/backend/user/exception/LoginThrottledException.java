@@ -0,0 +1,24 @@
+package com.example.backend.user.exception;
+
+/**
+ * 登录请求过多异常（超出 IP 或账户的限流，或登录验证队列已满）
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    /** 建议的重试等待秒数 */
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public LoginThrottledException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
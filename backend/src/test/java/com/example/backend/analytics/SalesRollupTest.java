@@ -0,0 +1,237 @@
+package com.example.backend.analytics;
+
+import com.example.backend.analytics.dto.DailySales;
+import com.example.backend.analytics.dto.MerchantSalesReport;
+import com.example.backend.analytics.dto.ProductSales;
+import com.example.backend.order.Order;
+import com.example.backend.order.OrderEventType;
+import com.example.backend.order.OrderItem;
+import com.example.backend.order.OrderOutbox;
+import com.example.backend.order.OrderOutboxEvent;
+import com.example.backend.order.OrderStatus;
+import com.example.backend.order.PaymentStatus;
+import com.example.backend.order.dto.OrderEventPayload;
+import com.example.backend.product.Product;
+import com.example.backend.user.User;
+import com.example.backend.user.UserRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 汇总重建在多个事务和线程中执行，测试数据需要真正提交，测试后清理
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.analytics.backfill.merchants-per-chunk=1"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SalesRollupWriter.class, SalesRollupBackfill.class, SalesRollupSink.class, SalesAnalyticsService.class,
+        OrderOutbox.class, JacksonAutoConfiguration.class})
+class SalesRollupTest {
+
+    private static final LocalDate DAY_ONE = LocalDate.of(2025, 3, 1);
+    private static final LocalDate DAY_TWO = LocalDate.of(2025, 3, 2);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SalesRollupBackfill backfill;
+
+    @Autowired
+    private SalesRollupSink sink;
+
+    @Autowired
+    private SalesAnalyticsService analyticsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private TransactionTemplate tx;
+
+    private Long merchantId;
+    private Long kettleId;
+    private Order paidOrder;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            User merchant = persist(user("rollup-merchant-a", UserRole.MERCHANT));
+            User other = persist(user("rollup-merchant-b", UserRole.MERCHANT));
+            User customer = persist(user("rollup-customer", UserRole.CUSTOMER));
+            Product kettle = persist(product("Kettle", merchant));
+            Product toaster = persist(product("Toaster", merchant));
+            Product lamp = persist(product("Lamp", other));
+            merchantId = merchant.getId();
+            kettleId = kettle.getId();
+
+            // 第一天：已支付订单（本商户 2 件 + 其他商户 1 件）、已取消订单；第二天：已退款订单
+            paidOrder = persist(order(customer, OrderStatus.PROCESSING, PaymentStatus.PAID,
+                    item(kettle, 2, "20.00"), item(lamp, 1, "5.00")));
+            Order cancelled = persist(order(customer, OrderStatus.CANCELLED, PaymentStatus.FAILED,
+                    item(kettle, 1, "10.00"), item(toaster, 3, "30.00")));
+            Order refunded = persist(order(customer, OrderStatus.REFUNDED, PaymentStatus.REFUNDED,
+                    item(toaster, 1, "10.00")));
+            entityManager.flush();
+            setOrderDate(paidOrder, DAY_ONE);
+            setOrderDate(cancelled, DAY_ONE);
+            setOrderDate(refunded, DAY_TWO);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM merchant_product_daily_sales");
+            jdbcTemplate.update("DELETE FROM merchant_daily_sales");
+            jdbcTemplate.update("DELETE FROM order_outbox_cursors");
+            jdbcTemplate.update("DELETE FROM order_items");
+            jdbcTemplate.update("DELETE FROM orders");
+            jdbcTemplate.update("DELETE FROM products");
+            jdbcTemplate.update("DELETE FROM users");
+        });
+    }
+
+    @Test
+    void rebuildAggregatesOrdersPerMerchantAndDay() {
+        backfill.rebuild();
+
+        assertTrue(backfill.isReady());
+        MerchantSalesReport report = analyticsService.getMerchantSales(merchantId, DAY_ONE, DAY_TWO);
+        assertEquals(2, report.getDaily().size());
+        DailySales dayOne = report.getDaily().get(0);
+        assertEquals(2L, dayOne.getOrdersCount());
+        assertEquals(6L, dayOne.getUnitsOrdered());
+        assertAmount("60.00", dayOne.getOrderedAmount());
+        assertEquals(2L, dayOne.getUnitsPaid());
+        assertAmount("20.00", dayOne.getPaidAmount());
+        assertAmount("40.00", dayOne.getCancelledAmount());
+        assertAmount("10.00", report.getRefundedAmount());
+        assertEquals(3L, report.getOrdersCount());
+
+        List<ProductSales> products = analyticsService.getProductSales(merchantId, DAY_ONE, DAY_TWO, 10);
+        assertEquals(kettleId, products.get(0).getProductId());
+        assertEquals("Kettle", products.get(0).getProductName());
+        assertEquals(2L, products.get(0).getOrdersCount());
+    }
+
+    @Test
+    void incrementalRefundMatchesRebuild() {
+        backfill.rebuild();
+
+        // 已支付订单退款：支付金额转入退款金额
+        OrderEventPayload refund = OrderEventPayload.builder()
+                .id(paidOrder.getId())
+                .status(OrderStatus.REFUNDED)
+                .paymentStatus(PaymentStatus.REFUNDED)
+                .previousStatus(OrderStatus.PROCESSING)
+                .previousPaymentStatus(PaymentStatus.PAID)
+                .orderDate(DAY_ONE.atTime(10, 0))
+                .items(paidOrder.getItems().stream()
+                        .map(item -> new OrderEventPayload.Item(item.getProduct().getId(), item.getMerchant().getId(),
+                                item.getQuantity(), item.getTotalPrice()))
+                        .toList())
+                .build();
+        tx.executeWithoutResult(status -> {
+            sink.deliver(List.of(event(OrderEventType.PAYMENT_STATUS_CHANGED, refund)));
+            jdbcTemplate.update("UPDATE orders SET status = 'REFUNDED', payment_status = 'REFUNDED' WHERE id = ?",
+                    paidOrder.getId());
+        });
+        MerchantSalesReport incremental = analyticsService.getMerchantSales(merchantId, DAY_ONE, DAY_TWO);
+        assertAmount("0.00", incremental.getPaidAmount());
+        assertAmount("30.00", incremental.getRefundedAmount());
+
+        backfill.rebuild();
+        MerchantSalesReport rebuilt = analyticsService.getMerchantSales(merchantId, DAY_ONE, DAY_TWO);
+        assertEquals(rebuilt.getDaily(), incremental.getDaily());
+    }
+
+    private OrderOutboxEvent event(OrderEventType type, OrderEventPayload payload) {
+        try {
+            return new OrderOutboxEvent(1L, payload.getId(), null, type, objectMapper.writeValueAsString(payload), null);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void setOrderDate(Order order, LocalDate date) {
+        jdbcTemplate.update("UPDATE orders SET order_date = ? WHERE id = ?", date.atTime(10, 0), order.getId());
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private User user(String username, UserRole role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setRole(role);
+        return user;
+    }
+
+    private Product product(String name, User merchant) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(100);
+        product.setMerchant(merchant);
+        return product;
+    }
+
+    private Order order(User customer, OrderStatus status, PaymentStatus paymentStatus, OrderItem... items) {
+        Order order = new Order();
+        order.setOrderNumber("ORD-ROLLUP-" + System.nanoTime());
+        order.setCustomer(customer);
+        order.setStatus(status);
+        order.setPaymentStatus(paymentStatus);
+        for (OrderItem item : items) {
+            item.setOrder(order);
+            order.getItems().add(item);
+        }
+        return order;
+    }
+
+    private OrderItem item(Product product, int quantity, String total) {
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setMerchant(product.getMerchant());
+        item.setProductName(product.getName());
+        item.setUnitPrice(product.getPrice());
+        item.setQuantity(quantity);
+        item.setTotalPrice(new BigDecimal(total));
+        return item;
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> "expected " + expected + " but was " + actual);
+    }
+}
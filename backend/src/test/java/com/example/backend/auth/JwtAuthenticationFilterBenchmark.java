@@ -0,0 +1,121 @@
+package com.example.backend.auth;
+
+import com.example.backend.user.UserActivityTracker;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * JWT 认证过滤器基准：旧实现（每个请求重建密钥并验签解析三次）对比 TokenVerifier（验签一次 + 摘要缓存）
+ * 运行：mvn test-compile 后在 IDE 中执行 main，或
+ * java -cp target/test-classes:target/classes:<test classpath> com.example.backend.auth.JwtAuthenticationFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-change-this-in-production-min-256-bits";
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter cachedFilter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        jwtUtil.init();
+        token = jwtUtil.generateToken(42L, "alice@example.com", "CUSTOMER");
+
+        TokenRevocationList revocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(revocationList, "repository", mock(TokenRevocationRepository.class));
+        ReflectionTestUtils.setField(revocationList, "expectedEntries", 100_000);
+        revocationList.init();
+
+        TokenVerifier verifier = new TokenVerifier(100_000, Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(verifier, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(verifier, "revocationList", revocationList);
+        cachedFilter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(cachedFilter, "tokenVerifier", verifier);
+
+        UserActivityTracker activityTracker = new UserActivityTracker();
+        ReflectionTestUtils.setField(activityTracker, "seenGranularity", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(cachedFilter, "activityTracker", activityTracker);
+    }
+
+    @Benchmark
+    public Object filterWithVerifierCache() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            cachedFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * 缓存未命中时的开销：复用密钥和解析器验签一次
+     */
+    @Benchmark
+    public Claims parseOnce() {
+        return jwtUtil.parseClaims(token);
+    }
+
+    /**
+     * 改造前过滤器的验证路径：getEmailFromToken、validateToken、getClaimFromToken 各自重建密钥和解析器并验签
+     */
+    @Benchmark
+    public String legacyTripleParse() {
+        String email = parseWithFreshKey(token).getSubject();
+        boolean valid = parseWithFreshKey(token).getExpiration().getTime() > System.currentTimeMillis();
+        String role = parseWithFreshKey(token).get("role", String.class);
+        return valid ? email + role : null;
+    }
+
+    private Claims parseWithFreshKey(String jwt) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(jwt)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
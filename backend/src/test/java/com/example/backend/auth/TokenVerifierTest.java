@@ -0,0 +1,157 @@
+package com.example.backend.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TokenVerifierTest {
+
+    private static final String SECRET = "test-secret-key-for-token-verifier-at-least-256-bits";
+
+    private JwtUtil jwtUtil;
+    private TokenRevocationList revocationList;
+    private TokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = spy(jwtUtil(3_600_000L));
+        revocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(revocationList, "repository", mock(TokenRevocationRepository.class));
+        ReflectionTestUtils.setField(revocationList, "expectedEntries", 1000);
+        revocationList.init();
+        verifier = new TokenVerifier(1000, Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(verifier, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(verifier, "revocationList", revocationList);
+    }
+
+    @Test
+    void verifiesOnceAndServesRepeatsFromCache() {
+        String token = jwtUtil.generateToken(42L, "alice@example.com", "CUSTOMER");
+
+        JwtPrincipal first = verifier.verify(token);
+        JwtPrincipal second = verifier.verify(token);
+
+        assertEquals(42L, first.userId());
+        assertEquals("alice@example.com", first.email());
+        assertEquals("CUSTOMER", first.role());
+        assertTrue(first.expiresAt().isAfter(Instant.now()));
+        assertSame(first, second);
+        verify(jwtUtil, times(1)).parseClaims(anyString());
+    }
+
+    @Test
+    void rejectsTamperedAndForeignTokens() {
+        String token = jwtUtil.generateToken(42L, "alice@example.com", "CUSTOMER");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(verifier.verify(tampered));
+        assertNull(verifier.verify("not-a-jwt"));
+
+        JwtUtil other = jwtUtil(3_600_000L);
+        ReflectionTestUtils.setField(other, "secret", SECRET + "-other");
+        other.init();
+        assertNull(verifier.verify(other.generateToken(42L, "alice@example.com", "ADMIN")));
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        JwtUtil expiring = jwtUtil(-1000L);
+        assertNull(verifier.verify(expiring.generateToken(42L, "alice@example.com", "CUSTOMER")));
+    }
+
+    @Test
+    void rejectsRevokedTokenEvenWhenCached() {
+        String token = jwtUtil.generateToken(42L, "alice@example.com", "CUSTOMER");
+        String other = jwtUtil.generateToken(42L, "alice@example.com", "CUSTOMER");
+        JwtPrincipal principal = verifier.verify(token);
+        assertNotNull(verifier.verify(other));
+
+        revocationList.apply(revocation(42L, principal.tokenId(), LocalDateTime.now()));
+
+        assertNull(verifier.verify(token));
+        assertNotNull(verifier.verify(other));
+    }
+
+    @Test
+    void userRevocationRejectsTokensIssuedUpToRevocation() {
+        String token = jwtUtil.generateToken(42L, "alice@example.com", "CUSTOMER");
+        String otherUser = jwtUtil.generateToken(7L, "bob@example.com", "CUSTOMER");
+        assertNotNull(verifier.verify(token));
+
+        revocationList.apply(revocation(42L, null, LocalDateTime.now()));
+
+        assertNull(verifier.verify(token));
+        assertNotNull(verifier.verify(otherUser));
+
+        // 重建过滤器后吊销仍然有效
+        revocationList.rebuild();
+        assertNull(verifier.verify(token));
+    }
+
+    @Test
+    void userRevocationComparesIssueTimeToTheMillisecond() {
+        Instant second = Instant.parse("2026-10-17T10:00:00Z");
+        JwtPrincipal beforeLogout = principal(42L, second.plusMillis(300));
+        JwtPrincipal afterLogout = principal(42L, second.plusMillis(700));
+
+        revocationList.apply(revocation(42L, null, LocalDateTime.ofInstant(second.plusMillis(500), ZoneId.systemDefault())));
+
+        // 同一秒内、吊销之后签发的令牌仍然有效
+        assertTrue(revocationList.isRevoked(beforeLogout));
+        assertFalse(revocationList.isRevoked(afterLogout));
+        assertTrue(revocationList.isRevoked(principal(42L, second.plusMillis(500))));
+    }
+
+    @Test
+    void tokenIssuedRightAfterUserRevocationIsAccepted() {
+        String token = jwtUtil.generateToken(42L, "alice@example.com", "CUSTOMER");
+        JwtPrincipal principal = verifier.verify(token);
+        assertNotNull(principal);
+
+        // 签发时间带毫秒，吊销时间早 1 毫秒（通常在同一秒内）不影响该令牌
+        revocationList.apply(revocation(42L, null,
+                LocalDateTime.ofInstant(principal.issuedAt().minusMillis(1), ZoneId.systemDefault())));
+        assertNotNull(verifier.verify(token));
+
+        revocationList.apply(revocation(42L, null, LocalDateTime.ofInstant(principal.issuedAt(), ZoneId.systemDefault())));
+        assertNull(verifier.verify(token));
+    }
+
+    private TokenRevocation revocation(Long userId, Long tokenId, LocalDateTime revokedAt) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setUserId(userId);
+        revocation.setTokenId(tokenId);
+        revocation.setRevokedAt(revokedAt);
+        revocation.setExpiresAt(LocalDateTime.ofInstant(Instant.now().plusSeconds(3600), ZoneId.systemDefault()));
+        return revocation;
+    }
+
+    private static JwtPrincipal principal(Long userId, Instant issuedAt) {
+        return new JwtPrincipal(userId, "alice@example.com", "CUSTOMER", 1L, issuedAt, issuedAt.plusSeconds(900));
+    }
+
+    private JwtUtil jwtUtil(long expiration) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "expiration", expiration);
+        util.init();
+        return util;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.backend.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void expiresEntriesOnTheirTickAcrossLevels() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 60, 500);
+        wheel.add("soon", 3_000);
+        wheel.add("minutes", 5 * 60_000 + 250);
+        wheel.add("hours", 2 * 3_600_000);
+
+        assertEquals(List.of(), wheel.advance(2_999));
+        assertEquals(List.of("soon"), wheel.advance(3_000));
+        assertEquals(List.of(), wheel.advance(5 * 60_000 + 999));
+        assertEquals(List.of("minutes"), wheel.advance(5 * 60_000 + 1_000));
+        assertEquals(List.of(), wheel.advance(2 * 3_600_000 - 1));
+        assertEquals(List.of("hours"), wheel.advance(2 * 3_600_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlinesAreReportedImmediately() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 60, 10_000);
+
+        assertTrue(wheel.add("late", 9_000));
+        assertFalse(wheel.add("later", 11_000));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void addingAgainReplacesTheDeadlineAndRemoveCancels() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 60, 0);
+        wheel.add("retried", 5_000);
+        wheel.add("retried", 3 * 60_000);
+        wheel.add("paid", 4_000);
+        assertEquals(2, wheel.size());
+
+        assertTrue(wheel.remove("paid"));
+        assertFalse(wheel.remove("paid"));
+        assertEquals(List.of(), wheel.advance(3 * 60_000 - 1));
+        assertEquals(List.of("retried"), wheel.advance(3 * 60_000));
+        assertEquals(0, wheel.size());
+
+        // 截止时间已过的重新添加也会取消原来的条目
+        wheel.add("late", 4 * 60_000);
+        assertTrue(wheel.add("late", 60_000));
+        assertEquals(0, wheel.size());
+        assertEquals(List.of(), wheel.advance(5 * 60_000));
+    }
+
+    @Test
+    void randomDeadlinesNeverFireEarlyOrMoreThanOneTickLate() {
+        Random random = new Random(42);
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(100, 8, 0);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            long deadline = 1 + random.nextInt(500_000);
+            deadlines.put(i, deadline);
+            wheel.add(i, deadline);
+        }
+
+        List<Integer> fired = new ArrayList<>();
+        for (long now = 0; now <= 500_100; now += 37) {
+            for (Integer item : wheel.advance(now)) {
+                long deadline = deadlines.get(item);
+                assertTrue(now >= deadline, "fired early: " + item);
+                assertTrue(now - deadline < 100 + 37, "fired late: " + item);
+                fired.add(item);
+            }
+        }
+        assertEquals(deadlines.size(), fired.size());
+        assertEquals(0, wheel.size());
+    }
+}
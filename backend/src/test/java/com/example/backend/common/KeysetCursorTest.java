@@ -0,0 +1,83 @@
+package com.example.backend.common;
+
+import com.example.backend.common.exception.InvalidCursorException;
+import com.example.backend.exception.GlobalExceptionHandler;
+import com.example.backend.product.ProductController;
+import com.example.backend.product.ProductRepository;
+import com.example.backend.product.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodeDecodeRoundTripKeepsNanosecondsAndId() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 3, 1, 12, 30, 0, 123_456_789), 42L);
+
+        String token = cursor.encode();
+
+        assertEquals(cursor, KeysetCursor.decode(token));
+        // URL 安全且无填充，可直接放在查询参数中
+        assertEquals(-1, token.indexOf('='));
+        assertEquals(-1, token.indexOf('+'));
+        assertEquals(-1, token.indexOf('/'));
+    }
+
+    @Test
+    void blankCursorStartsFromFirstPage() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(""));
+        assertNull(KeysetCursor.decode("  "));
+    }
+
+    @Test
+    void malformedOrTamperedCursorsAreRejected() {
+        String valid = new KeysetCursor(LocalDateTime.of(2025, 3, 1, 12, 30), 42L).encode();
+
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("not base64!"));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(valid.substring(1)));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(encode("2025-03-01T12:30")));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(encode("|42")));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(encode("yesterday|42")));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(encode("2025-03-01T12:30|")));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(encode("2025-03-01T12:30|42x")));
+    }
+
+    @Test
+    void tamperedCursorIsBadRequestNotServerError() throws Exception {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        ProductService productService = new ProductService();
+        ReflectionTestUtils.setField(productService, "productRepository", productRepository);
+        ProductController controller = new ProductController();
+        ReflectionTestUtils.setField(controller, "productService", productService);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        mockMvc.perform(get("/products").param("cursor", encode("2025-03-01T12:30|DROP")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("无效的分页游标"));
+        mockMvc.perform(get("/products/active").param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(productRepository);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.backend.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongBloomFilterTest {
+
+    @Test
+    void neverReportsFalseNegatives() {
+        LongBloomFilter filter = new LongBloomFilter(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.add(id * 7919);
+        }
+        for (long id = 1; id <= 10_000; id++) {
+            assertTrue(filter.mightContain(id * 7919), "missing: " + id);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        LongBloomFilter filter = new LongBloomFilter(10_000, 0.01);
+        for (long id = 0; id < 10_000; id++) {
+            filter.add(id);
+        }
+        int falsePositives = 0;
+        for (long id = 1_000_000; id < 1_100_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new LongBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new LongBloomFilter(100, 1.0));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.backend.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000_000L);
+
+    @Test
+    void allowsBurstThenRefillsOneTokenPerInterval() {
+        TokenBucketLimiter<String> limiter = new TokenBucketLimiter<>(3, Duration.ofSeconds(1), 100, now::get);
+
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(600), limiter.tryAcquire("10.0.0.1"));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+
+        // 长时间空闲后最多恢复到桶容量
+        now.addAndGet(TimeUnit.HOURS.toNanos(1));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        }
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+    }
+
+    @Test
+    void acquireReportsRemainingTokensAndWait() {
+        TokenBucketLimiter<String> limiter = new TokenBucketLimiter<>(3, Duration.ofSeconds(1), 100, now::get);
+
+        assertEquals(2, limiter.acquire("10.0.0.1"));
+        assertEquals(1, limiter.acquire("10.0.0.1"));
+        assertEquals(0, limiter.acquire("10.0.0.1"));
+        assertEquals(-TimeUnit.SECONDS.toNanos(1), limiter.acquire("10.0.0.1"));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals(1, limiter.acquire("10.0.0.1"));
+    }
+
+    @Test
+    void evictsOnlyFullBucketsAndStopsTrackingWhenFull() {
+        TokenBucketLimiter<String> limiter = new TokenBucketLimiter<>(2, Duration.ofSeconds(1), 16, now::get);
+
+        limiter.tryAcquire("busy");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        limiter.tryAcquire("idle");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        limiter.tryAcquire("recent");
+        limiter.tryAcquire("recent");
+
+        limiter.evictIdle();
+        assertEquals(1, limiter.size());
+        assertTrue(limiter.tryAcquire("recent") > 0);
+
+        // 每个分片最多一个 key：新 key 不再跟踪，直接放行
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(0, limiter.tryAcquire("key-" + i));
+        }
+        assertTrue(limiter.size() <= 16);
+    }
+
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws InterruptedException {
+        TokenBucketLimiter<String> limiter = new TokenBucketLimiter<>(100, Duration.ofHours(1), 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < 1_000; j++) {
+                    if (limiter.tryAcquire("alice@example.com") == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(100, granted.get());
+    }
+}
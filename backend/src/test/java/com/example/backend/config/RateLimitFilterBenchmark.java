@@ -0,0 +1,117 @@
+package com.example.backend.config;
+
+import com.example.backend.auth.TokenVerifier;
+import com.example.backend.common.TokenBucketLimiter;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流过滤器开销基准：同样构造请求并执行过滤器链，对比经过 RateLimitFilter 与直接执行的耗时差
+ * （8 线程、1 万个客户端 IP，容量足够大，测的是放行路径：IP 总上限 + 路由匹配 + 计数 + 响应头）
+ * 运行：mvn test-compile 后在 IDE 中执行 main，或
+ * java -cp target/test-classes:target/classes:<test classpath> com.example.backend.config.RateLimitFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class RateLimitFilterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private RateLimitFilter filter;
+    private TokenBucketLimiter<String> limiter;
+    private String[] clientIps;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setIpCeiling(new RateLimitProperties.Limit(Integer.MAX_VALUE, Duration.ofNanos(1)));
+        properties.setPolicies(List.of(
+                policy("product-search", "/products/search"),
+                policy("orders", "/orders"),
+                policy("catalog", "/products")));
+
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "properties", properties);
+        // 策略只配置匿名限流，不会验证令牌
+        ReflectionTestUtils.setField(filter, "tokenVerifier", Mockito.mock(TokenVerifier.class));
+        filter.init();
+        limiter = new TokenBucketLimiter<>(Integer.MAX_VALUE, Duration.ofNanos(1), 100_000);
+
+        clientIps = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clientIps[i] = "10.0." + (i >> 8) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public Object baseline() throws Exception {
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain().doFilter(request, response);
+        return response;
+    }
+
+    @Benchmark
+    public Object withRateLimit() throws Exception {
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    /**
+     * 只测计数器本身：随机客户端的一次取令牌
+     */
+    @Benchmark
+    public long limiterAcquire() {
+        return limiter.acquire(clientIps[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/active");
+        request.setContextPath("/api");
+        request.setRemoteAddr(clientIps[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+        return request;
+    }
+
+    private static RateLimitProperties.Policy policy(String name, String path) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setName(name);
+        policy.setPath(path);
+        policy.setAnonymous(new RateLimitProperties.Limit(Integer.MAX_VALUE, Duration.ofNanos(1)));
+        return policy;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.backend.config;
+
+import com.example.backend.auth.JwtAuthenticationFilter;
+import com.example.backend.auth.JwtPrincipal;
+import com.example.backend.auth.TokenVerifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+    private TokenVerifier tokenVerifier;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Policy search = new RateLimitProperties.Policy();
+        search.setName("product-search");
+        search.setPath("/products/search");
+        search.setMethods(List.of("get"));
+        search.setAnonymous(new RateLimitProperties.Limit(2, Duration.ofMinutes(1)));
+        search.setUser(new RateLimitProperties.Limit(3, Duration.ofMinutes(1)));
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setIpCeiling(new RateLimitProperties.Limit(5, Duration.ofMinutes(1)));
+        properties.setPolicies(List.of(search));
+
+        tokenVerifier = mock(TokenVerifier.class);
+        when(tokenVerifier.verify("alice-1")).thenReturn(principal(1L, 11L));
+        when(tokenVerifier.verify("alice-2")).thenReturn(principal(1L, 12L));
+        when(tokenVerifier.verify("bob")).thenReturn(principal(2L, 21L));
+        when(tokenVerifier.verify("carol")).thenReturn(principal(3L, 31L));
+
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "properties", properties);
+        ReflectionTestUtils.setField(filter, "tokenVerifier", tokenVerifier);
+        filter.init();
+    }
+
+    @Test
+    void anonymousRequestsAreLimitedPerIpWithHeaders() throws Exception {
+        MockHttpServletResponse first = perform("GET", "/products/search", "10.0.0.1", null);
+        assertEquals(200, first.getStatus());
+        assertEquals("2", first.getHeader("RateLimit-Limit"));
+        assertEquals("1", first.getHeader("RateLimit-Remaining"));
+        assertEquals("2;w=120;name=\"product-search\"", first.getHeader("RateLimit-Policy"));
+
+        assertEquals(200, perform("GET", "/products/search", "10.0.0.1", null).getStatus());
+        MockHttpServletResponse rejected = perform("GET", "/products/search", "10.0.0.1", null);
+        assertEquals(429, rejected.getStatus());
+        assertEquals("0", rejected.getHeader("RateLimit-Remaining"));
+        assertEquals("60", rejected.getHeader("Retry-After"));
+
+        // 其他 IP 和不匹配的方法不受影响
+        assertEquals(200, perform("GET", "/products/search", "10.0.0.2", null).getStatus());
+        assertEquals(200, perform("POST", "/products/search", "10.0.0.1", null).getStatus());
+    }
+
+    @Test
+    void verifiedRequestsAreLimitedPerUserAndCappedPerIp() throws Exception {
+        // 同一用户的不同令牌共用一个计数桶
+        assertEquals(200, perform("GET", "/products/search", "10.0.0.1", "Bearer alice-1").getStatus());
+        assertEquals(200, perform("GET", "/products/search", "10.0.0.1", "Bearer alice-2").getStatus());
+        MockHttpServletResponse third = perform("GET", "/products/search", "10.0.0.1", "Bearer alice-1");
+        assertEquals(200, third.getStatus());
+        assertEquals("3", third.getHeader("RateLimit-Limit"));
+        assertEquals(429, perform("GET", "/products/search", "10.0.0.1", "Bearer alice-2").getStatus());
+        assertEquals(200, perform("GET", "/products/search", "10.0.0.1", "Bearer bob").getStatus());
+
+        // IP 总上限为 5 次（第 4 次被按用户拒绝的请求同样计入）
+        MockHttpServletResponse capped = perform("GET", "/products/search", "10.0.0.1", "Bearer carol");
+        assertEquals(429, capped.getStatus());
+        assertEquals("5", capped.getHeader("RateLimit-Limit"));
+    }
+
+    @Test
+    void invalidTokensAreChargedToTheAnonymousIpBucket() throws Exception {
+        MockHttpServletResponse first = perform("GET", "/products/search", "10.0.0.1", "Bearer forged-1");
+        assertEquals(200, first.getStatus());
+        assertEquals("2", first.getHeader("RateLimit-Limit"));
+        assertEquals(200, perform("GET", "/products/search", "10.0.0.1", null).getStatus());
+        // 每次换一个随机令牌也拿不到新的计数桶
+        assertEquals(429, perform("GET", "/products/search", "10.0.0.1", "Bearer forged-2").getStatus());
+        assertEquals(429, perform("GET", "/products/search", "10.0.0.1", "Bearer forged-3").getStatus());
+        assertEquals(200, perform("GET", "/products/search", "10.0.0.1", "Bearer alice-1").getStatus());
+    }
+
+    @Test
+    void verifiedPrincipalIsPassedOnToTheAuthenticationFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/search");
+        request.setContextPath("/api");
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("Authorization", "Bearer bob");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        assertSame(tokenVerifier.verify("bob"), request.getAttribute(JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE));
+    }
+
+    @Test
+    void unmatchedRoutesOnlyReportIpCeiling() throws Exception {
+        MockHttpServletResponse response = perform("GET", "/orders/1", "10.0.0.1", null);
+        assertEquals(200, response.getStatus());
+        assertEquals("5", response.getHeader("RateLimit-Limit"));
+        assertEquals("4", response.getHeader("RateLimit-Remaining"));
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String ip, String authorization)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api" + path);
+        request.setContextPath("/api");
+        request.setRemoteAddr(ip);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        if (response.getStatus() == 200) {
+            assertNotNull(chain.getRequest());
+        } else {
+            assertNull(chain.getRequest());
+        }
+        return response;
+    }
+
+    private static JwtPrincipal principal(Long userId, long tokenId) {
+        Instant now = Instant.now();
+        return new JwtPrincipal(userId, "user" + userId + "@example.com", "CUSTOMER", tokenId,
+                now, now.plusSeconds(900));
+    }
+}
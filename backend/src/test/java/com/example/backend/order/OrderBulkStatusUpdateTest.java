@@ -0,0 +1,103 @@
+package com.example.backend.order;
+
+import com.example.backend.order.dto.BulkUpdateOrderStatusResponse;
+import com.example.backend.order.dto.OrderStatusUpdate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderBulkStatusUpdateTest {
+
+    private OrderService orderService;
+    private OrderRepository orderRepository;
+    private MerchantOrderRepository merchantOrderRepository;
+    private OrderOutbox orderOutbox;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        merchantOrderRepository = mock(MerchantOrderRepository.class);
+        orderOutbox = mock(OrderOutbox.class);
+
+        orderService = new OrderService();
+        ReflectionTestUtils.setField(orderService, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(orderService, "merchantOrderRepository", merchantOrderRepository);
+        ReflectionTestUtils.setField(orderService, "orderOutbox", orderOutbox);
+        ReflectionTestUtils.setField(orderService, "orderEventHub", mock(OrderEventHub.class));
+    }
+
+    @Test
+    void invalidEntriesFailWithoutAbortingTheBatch() {
+        Order processing = order(1L, OrderStatus.PROCESSING);
+        Order cancelled = order(2L, OrderStatus.CANCELLED);
+        Order another = order(3L, OrderStatus.PROCESSING);
+        when(orderRepository.findAllById(any())).thenReturn(List.of(processing, cancelled, another));
+
+        BulkUpdateOrderStatusResponse response = orderService.updateOrderStatuses(List.of(
+                update(1L, OrderStatus.SHIPPED),
+                update(2L, OrderStatus.SHIPPED),
+                update(99L, OrderStatus.SHIPPED),
+                update(1L, OrderStatus.DELIVERED),
+                update(3L, OrderStatus.CANCELLED)));
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(4, response.getFailed());
+        assertTrue(response.getResults().get(0).isSuccess());
+        response.getResults().subList(1, 5).forEach(result -> assertFalse(result.isSuccess()));
+
+        assertEquals(OrderStatus.SHIPPED, processing.getStatus());
+        assertEquals("AU1", processing.getTrackingNumber());
+        assertNotNull(processing.getShippedDate());
+        assertEquals(OrderStatus.CANCELLED, cancelled.getStatus());
+        assertEquals(OrderStatus.PROCESSING, another.getStatus());
+
+        verify(orderRepository, times(1)).findAllById(any());
+        verify(merchantOrderRepository).updateStatus(List.of(1L), OrderStatus.SHIPPED);
+        verify(orderOutbox, times(1)).recordTransition(eq(OrderEventType.STATUS_CHANGED), any(),
+                eq(OrderStatus.PROCESSING), any());
+    }
+
+    @Test
+    void merchantOrderStatusesAreSyncedOncePerTargetStatus() {
+        when(orderRepository.findAllById(any())).thenReturn(List.of(
+                order(1L, OrderStatus.PROCESSING), order(2L, OrderStatus.PROCESSING), order(3L, OrderStatus.SHIPPED)));
+
+        BulkUpdateOrderStatusResponse response = orderService.updateOrderStatuses(List.of(
+                update(1L, OrderStatus.SHIPPED), update(2L, OrderStatus.SHIPPED), update(3L, OrderStatus.DELIVERED)));
+
+        assertEquals(3, response.getSucceeded());
+        verify(merchantOrderRepository).updateStatus(List.of(1L, 2L), OrderStatus.SHIPPED);
+        verify(merchantOrderRepository).updateStatus(List.of(3L), OrderStatus.DELIVERED);
+        verify(merchantOrderRepository, times(2)).updateStatus(anyCollection(), any());
+    }
+
+    private Order order(Long id, OrderStatus status) {
+        Order order = new Order();
+        order.setId(id);
+        order.setStatus(status);
+        return order;
+    }
+
+    private OrderStatusUpdate update(Long orderId, OrderStatus status) {
+        OrderStatusUpdate update = new OrderStatusUpdate();
+        update.setOrderId(orderId);
+        update.setStatus(status);
+        update.setShippingProvider("AusPost");
+        update.setTrackingNumber("AU" + orderId);
+        return update;
+    }
+}
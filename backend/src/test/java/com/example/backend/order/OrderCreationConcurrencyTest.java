@@ -0,0 +1,165 @@
+package com.example.backend.order;
+
+import com.example.backend.order.dto.CreateOrderRequest;
+import com.example.backend.order.dto.OrderItemRequest;
+import com.example.backend.product.FlashSaleStock;
+import com.example.backend.product.Product;
+import com.example.backend.product.ProductCache;
+import com.example.backend.product.ProductRepository;
+import com.example.backend.product.ProductSearchIndex;
+import com.example.backend.product.ProductStatus;
+import com.example.backend.product.ProductStockUpdater;
+import com.example.backend.product.exception.InsufficientStockException;
+import com.example.backend.user.User;
+import com.example.backend.user.UserRepository;
+import com.example.backend.user.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 并发下单：走完整的 OrderService.createOrder（预检查、条件扣减、号段主键、商户索引、outbox），不超卖
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({OrderService.class, OrderOutbox.class, OrderNumberGenerator.class, ProductStockUpdater.class,
+        JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderCreationConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 40;
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 8;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MerchantOrderRepository merchantOrderRepository;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private OrderEventHub orderEventHub;
+
+    @MockBean
+    private FlashSaleStock flashSaleStock;
+
+    @MockBean
+    private ProductSearchIndex productSearchIndex;
+
+    @MockBean
+    private ProductCache productCache;
+
+    private Long customerId;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        User merchant = userRepository.save(user("order-merchant", UserRole.MERCHANT));
+        customerId = userRepository.save(user("order-customer", UserRole.CUSTOMER)).getId();
+
+        Product product = new Product();
+        product.setName("Flash Sale Kettle");
+        product.setPrice(new BigDecimal("19.99"));
+        product.setStock(INITIAL_STOCK);
+        product.setMerchant(merchant);
+        productId = productRepository.save(product).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        merchantOrderRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentOrdersNeverOversell() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    try {
+                        orderService.createOrder(request());
+                        created.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(INITIAL_STOCK, created.get());
+        assertEquals(THREADS * ORDERS_PER_THREAD - INITIAL_STOCK, rejected.get());
+        assertEquals(INITIAL_STOCK, orderRepository.count());
+        assertEquals(INITIAL_STOCK, merchantOrderRepository.count());
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertEquals(0, product.getStock());
+        assertEquals(INITIAL_STOCK, product.getSalesCount());
+        assertEquals(ProductStatus.OUT_OF_STOCK, product.getStatus());
+    }
+
+    private CreateOrderRequest request() {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(1);
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(customerId);
+        request.setItems(List.of(item));
+        return request;
+    }
+
+    private User user(String username, UserRole role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setRole(role);
+        return user;
+    }
+}
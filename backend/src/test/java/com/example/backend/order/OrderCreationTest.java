@@ -0,0 +1,138 @@
+package com.example.backend.order;
+
+import com.example.backend.order.dto.CreateOrderRequest;
+import com.example.backend.order.dto.OrderItemRequest;
+import com.example.backend.order.dto.OrderResponse;
+import com.example.backend.product.FlashSaleStock;
+import com.example.backend.product.Product;
+import com.example.backend.product.ProductCache;
+import com.example.backend.product.ProductSearchIndex;
+import com.example.backend.product.ProductStockUpdater;
+import com.example.backend.user.User;
+import com.example.backend.user.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * 下单全流程（号段主键下）：订单、商户订单索引、outbox 事件和待支付事件都拿到同一个下单时间
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({OrderService.class, OrderOutbox.class, OrderNumberGenerator.class, ProductStockUpdater.class,
+        JacksonAutoConfiguration.class})
+@RecordApplicationEvents
+class OrderCreationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MerchantOrderRepository merchantOrderRepository;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @MockBean
+    private OrderEventHub orderEventHub;
+
+    @MockBean
+    private FlashSaleStock flashSaleStock;
+
+    @MockBean
+    private ProductSearchIndex productSearchIndex;
+
+    @MockBean
+    private ProductCache productCache;
+
+    @Test
+    void createOrderWritesMerchantRowsOutboxAndPaymentEventWithOrderDate() {
+        User first = entityManager.persist(user("merchant-a", UserRole.MERCHANT));
+        User second = entityManager.persist(user("merchant-b", UserRole.MERCHANT));
+        User customer = entityManager.persist(user("customer", UserRole.CUSTOMER));
+        Product kettle = entityManager.persist(product("Kettle", first));
+        Product toaster = entityManager.persist(product("Toaster", second));
+        Product mug = entityManager.persist(product("Mug", first));
+        entityManager.flush();
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(customer.getId());
+        request.setItems(List.of(item(kettle, 2), item(toaster, 1), item(mug, 3)));
+
+        OrderResponse response = orderService.createOrder(request);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertNotNull(response.getId());
+        assertNotNull(response.getOrderDate());
+        assertEquals(3, response.getItems().size());
+
+        Order order = entityManager.find(Order.class, response.getId());
+        assertEquals(response.getOrderDate(), order.getOrderDate());
+
+        List<MerchantOrder> merchantOrders = merchantOrderRepository.findAll().stream()
+                .sorted(Comparator.comparing(MerchantOrder::getMerchantId))
+                .toList();
+        assertEquals(List.of(first.getId(), second.getId()),
+                merchantOrders.stream().map(MerchantOrder::getMerchantId).toList());
+        merchantOrders.forEach(merchantOrder -> {
+            assertEquals(order.getId(), merchantOrder.getOrderId());
+            assertEquals(order.getOrderDate(), merchantOrder.getOrderDate());
+            assertEquals(OrderStatus.PENDING_PAYMENT, merchantOrder.getStatus());
+        });
+
+        List<OrderOutboxEvent> outbox = outboxRepository.findAll();
+        assertEquals(1, outbox.size());
+        assertEquals(OrderEventType.CREATED, outbox.get(0).getEventType());
+        assertEquals(order.getId(), outbox.get(0).getOrderId());
+
+        List<PaymentPendingEvent> pending = events.stream(PaymentPendingEvent.class).toList();
+        assertEquals(List.of(new PaymentPendingEvent(order.getId(), order.getOrderDate())), pending);
+
+        assertEquals(98, entityManager.find(Product.class, kettle.getId()).getStock());
+        assertEquals(97, entityManager.find(Product.class, mug.getId()).getStock());
+    }
+
+    private User user(String username, UserRole role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setRole(role);
+        return user;
+    }
+
+    private Product product(String name, User merchant) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(100);
+        product.setMerchant(merchant);
+        return product;
+    }
+
+    private OrderItemRequest item(Product product, int quantity) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+        return item;
+    }
+}
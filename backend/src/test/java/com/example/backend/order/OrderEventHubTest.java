@@ -0,0 +1,101 @@
+package com.example.backend.order;
+
+import com.example.backend.order.dto.OrderStatusChange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderEventHubTest {
+
+    private final OrderEventHub hub = new OrderEventHub(4, Duration.ofMinutes(1), 2);
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void publishReachesCustomerAndMerchantSubscribers() throws InterruptedException {
+        RecordingEmitter customer = new RecordingEmitter(null);
+        RecordingEmitter merchant = new RecordingEmitter(null);
+        RecordingEmitter otherMerchant = new RecordingEmitter(null);
+        hub.subscribeCustomer(1L, customer);
+        hub.subscribeMerchant(10L, merchant);
+        hub.subscribeMerchant(20L, otherMerchant);
+
+        hub.publish(change(100L), 1L, List.of(10L));
+
+        assertNotNull(customer.sent.poll(5, TimeUnit.SECONDS));
+        assertNotNull(merchant.sent.poll(5, TimeUnit.SECONDS));
+        assertNull(otherMerchant.sent.poll(200, TimeUnit.MILLISECONDS));
+        assertTrue(hub.hasMerchantSubscribers());
+        assertEquals(3, hub.connectionCount());
+    }
+
+    @Test
+    void slowConsumerIsDroppedWithoutBlockingOthers() throws InterruptedException {
+        CountDownLatch stuck = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(stuck);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        hub.subscribeCustomer(1L, slow);
+        hub.subscribeCustomer(1L, fast);
+
+        // 慢速客户端卡在第一个事件上，后续事件写满缓冲区（容量 4）后被断开
+        for (long orderId = 1; orderId <= 10; orderId++) {
+            hub.publish(change(orderId), 1L, List.of());
+            assertNotNull(fast.sent.poll(5, TimeUnit.SECONDS));
+        }
+        stuck.countDown();
+
+        assertEquals(1, hub.connectionCount());
+        assertTrue(slow.completed);
+        assertFalse(fast.completed);
+    }
+
+    private OrderStatusChange change(Long orderId) {
+        return OrderStatusChange.builder()
+                .id(orderId)
+                .status(OrderStatus.SHIPPED)
+                .build();
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch blockUntil;
+        private volatile boolean completed;
+
+        private RecordingEmitter(CountDownLatch blockUntil) {
+            this.blockUntil = blockUntil;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (blockUntil != null) {
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.add(builder);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
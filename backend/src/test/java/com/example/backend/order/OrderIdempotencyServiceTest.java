@@ -0,0 +1,117 @@
+package com.example.backend.order;
+
+import com.example.backend.order.dto.CreateOrderRequest;
+import com.example.backend.order.dto.OrderResponse;
+import com.example.backend.order.exception.OrderCreationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderIdempotencyServiceTest {
+
+    private OrderIdempotencyService service;
+    private FlashSaleAdmission flashSaleAdmission;
+    private OrderService orderService;
+    private OrderIdempotencyKeyRepository repository;
+    private CreateOrderRequest request;
+
+    @BeforeEach
+    void setUp() {
+        flashSaleAdmission = mock(FlashSaleAdmission.class);
+        orderService = mock(OrderService.class);
+        repository = mock(OrderIdempotencyKeyRepository.class);
+        when(repository.findOrderId(anyLong(), anyString())).thenReturn(Optional.empty());
+        when(orderService.getOrderById(anyLong())).thenAnswer(invocation -> order(invocation.getArgument(0)));
+
+        service = new OrderIdempotencyService(1000, Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(service, "flashSaleAdmission", flashSaleAdmission);
+        ReflectionTestUtils.setField(service, "orderService", orderService);
+        ReflectionTestUtils.setField(service, "idempotencyKeyRepository", repository);
+        ReflectionTestUtils.setField(service, "waitTimeoutMs", 10_000L);
+
+        request = new CreateOrderRequest();
+        request.setUserId(1L);
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstRequest() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(flashSaleAdmission.createOrder(any(), eq("retry-1"))).thenAnswer(invocation -> {
+            firstStarted.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return order(42L);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Future<OrderResponse> first = executor.submit(() -> service.createOrder("retry-1", request));
+        firstStarted.await(10, TimeUnit.SECONDS);
+        List<Future<OrderResponse>> duplicates = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            duplicates.add(executor.submit(() -> service.createOrder("retry-1", request)));
+        }
+        release.countDown();
+
+        assertEquals(42L, first.get(10, TimeUnit.SECONDS).getId());
+        for (Future<OrderResponse> duplicate : duplicates) {
+            assertEquals(42L, duplicate.get(10, TimeUnit.SECONDS).getId());
+        }
+        executor.shutdown();
+        verify(flashSaleAdmission, times(1)).createOrder(any(), eq("retry-1"));
+    }
+
+    @Test
+    void replaysOrderRecordedByEarlierProcess() {
+        when(repository.findOrderId(1L, "retry-2")).thenReturn(Optional.of(7L));
+
+        assertEquals(7L, service.createOrder("retry-2", request).getId());
+        verify(flashSaleAdmission, never()).createOrder(any(), any());
+    }
+
+    @Test
+    void failedRequestCanBeRetriedWithSameKey() {
+        when(flashSaleAdmission.createOrder(any(), eq("retry-3")))
+                .thenThrow(new OrderCreationException("boom"))
+                .thenReturn(order(9L));
+
+        assertThrows(OrderCreationException.class, () -> service.createOrder("retry-3", request));
+        assertEquals(9L, service.createOrder("retry-3", request).getId());
+    }
+
+    @Test
+    void requestsWithoutKeyAreNotDeduplicated() {
+        when(flashSaleAdmission.createOrder(any(), isNull())).thenReturn(order(1L), order(2L));
+
+        assertEquals(1L, service.createOrder(null, request).getId());
+        assertEquals(2L, service.createOrder(null, request).getId());
+    }
+
+    private static OrderResponse order(Long id) {
+        OrderResponse response = new OrderResponse();
+        response.setId(id);
+        return response;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.backend.order;
+
+import com.example.backend.product.Product;
+import com.example.backend.user.User;
+import com.example.backend.user.UserRole;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 下单写入基准：持久化一个含 1/10/100 个订单项的订单（与 createOrder 的写入部分一致）
+ * batchSize=0 对应改造前的行为：IDENTITY 主键下 Hibernate 只能逐条 INSERT；batchSize=50 为号段主键 + 批量插入。
+ * H2 内存库没有网络开销，roundTripMicros 在每次语句执行（含 executeBatch）时模拟到远程 MySQL 的往返延迟。
+ * 运行：mvn test-compile 后在 IDE 中执行 main，或
+ * java -cp target/test-classes:target/classes:<test classpath> com.example.backend.order.OrderInsertBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderInsertBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int lines;
+
+    @Param({"0", "50"})
+    private int batchSize;
+
+    @Param({"0", "300"})
+    private long roundTripMicros;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private EntityManagerFactory entityManagerFactory;
+    private Long customerId;
+    private Long merchantId;
+    private Long productId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DriverManagerDataSource h2 = new DriverManagerDataSource(
+                "jdbc:h2:mem:order-insert-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(new RoundTripDataSource(h2, TimeUnit.MICROSECONDS.toNanos(roundTripMicros)));
+        factory.setPackagesToScan("com.example.backend");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.jdbc.batch_size", String.valueOf(batchSize),
+                "hibernate.order_inserts", "true"));
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        User merchant = user("merchant", UserRole.MERCHANT);
+        User customer = user("customer", UserRole.CUSTOMER);
+        entityManager.persist(merchant);
+        entityManager.persist(customer);
+        Product product = new Product();
+        product.setName("Kettle");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(Integer.MAX_VALUE);
+        product.setMerchant(merchant);
+        entityManager.persist(product);
+        entityManager.getTransaction().commit();
+        entityManager.close();
+
+        customerId = customer.getId();
+        merchantId = merchant.getId();
+        productId = product.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public Long createOrder() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            Order order = new Order();
+            order.setOrderNumber("ORD-BENCH-" + sequence.incrementAndGet());
+            order.setCustomer(entityManager.getReference(User.class, customerId));
+            order.setItems(new ArrayList<>(lines));
+            Product product = entityManager.getReference(Product.class, productId);
+            User merchant = entityManager.getReference(User.class, merchantId);
+            for (int i = 0; i < lines; i++) {
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setProduct(product);
+                item.setMerchant(merchant);
+                item.setProductName("Kettle");
+                item.setUnitPrice(new BigDecimal("10.00"));
+                item.setQuantity(1);
+                item.setTotalPrice(new BigDecimal("10.00"));
+                order.getItems().add(item);
+            }
+            BigDecimal total = new BigDecimal("10.00").multiply(BigDecimal.valueOf(lines));
+            order.setSubtotal(total);
+            order.setTotalAmount(total);
+            entityManager.persist(order);
+            entityManager.getTransaction().commit();
+            return order.getId();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private User user(String username, UserRole role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setRole(role);
+        return user;
+    }
+
+    /**
+     * 每次执行语句前等待固定时长，模拟数据库网络往返
+     */
+    private static class RoundTripDataSource extends DelegatingDataSource {
+
+        private final long roundTripNanos;
+
+        RoundTripDataSource(DriverManagerDataSource target, long roundTripNanos) {
+            super(target);
+            this.roundTripNanos = roundTripNanos;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return roundTripNanos == 0 ? connection : (Connection) proxy(Connection.class, connection);
+        }
+
+        private Object proxy(Class<?> type, Object target) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    LockSupport.parkNanos(roundTripNanos);
+                }
+                try {
+                    Object result = method.invoke(target, args);
+                    if (result instanceof PreparedStatement) {
+                        return proxy(PreparedStatement.class, result);
+                    }
+                    if (result instanceof Statement) {
+                        return proxy(Statement.class, result);
+                    }
+                    return result;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderInsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.backend.order;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderNumberGeneratorTest {
+
+    private static final ZoneId SHANGHAI = ZoneId.of("Asia/Shanghai");
+
+    @Test
+    void concurrentCallsProduceUniqueNumbers() throws Exception {
+        OrderNumberGenerator generator = new OrderNumberGenerator(7, SHANGHAI);
+        int threads = 16;
+        int perThread = 20_000;
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                List<String> generated = new ArrayList<>(perThread);
+                for (int i = 0; i < perThread; i++) {
+                    generated.add(generator.next());
+                }
+                // 单个线程内先后生成的订单号按字典序递增
+                for (int i = 1; i < generated.size(); i++) {
+                    assertTrue(generated.get(i - 1).compareTo(generated.get(i)) < 0);
+                }
+                numbers.addAll(generated);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(threads * perThread, numbers.size());
+    }
+
+    @Test
+    void formatsTimeNodeAndSequence() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(42, SHANGHAI) {
+            @Override
+            long currentMillis() {
+                return 1735707390123L; // 2025-01-01 12:56:30.123 +08:00
+            }
+        };
+
+        assertEquals("ORD-20250101125630123-0042-0000", generator.next());
+        assertEquals("ORD-20250101125630123-0042-0001", generator.next());
+    }
+
+    @Test
+    void sequenceOverflowAndClockRollbackStayMonotonic() {
+        long[] now = {1_000_000L};
+        OrderNumberGenerator generator = new OrderNumberGenerator(0, SHANGHAI) {
+            @Override
+            long currentMillis() {
+                return now[0];
+            }
+        };
+
+        long previous = generator.nextValue();
+        for (int i = 0; i < 5000; i++) {
+            long value = generator.nextValue();
+            assertTrue(value > previous);
+            previous = value;
+        }
+        now[0] -= 10_000;
+        assertTrue(generator.nextValue() > previous);
+    }
+
+    @Test
+    void rejectsOutOfRangeNodeId() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(OrderNumberGenerator.MAX_NODE_ID + 1, SHANGHAI);
+        assertThrows(IllegalStateException.class, generator::validate);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.backend.order;
+
+import com.example.backend.user.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.outbox.batch-size=2"
+})
+@Import({OrderOutbox.class, OrderOutboxRelay.class, OrderOutboxRelayTest.RecordingSink.class, JacksonAutoConfiguration.class})
+class OrderOutboxRelayTest {
+
+    @Autowired
+    private OrderOutbox orderOutbox;
+
+    @Autowired
+    private OrderOutboxRelay relay;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private OrderOutboxCursorRepository cursorRepository;
+
+    @Autowired
+    private RecordingSink sink;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void relayDeliversBatchesInIdOrderAndAdvancesCursor() {
+        orderOutbox.record(OrderEventType.CREATED, List.of(order(1L), order(2L), order(3L)));
+        List<OrderOutboxEvent> recorded = outboxRepository.findAll();
+        long firstId = recorded.get(0).getId();
+        cursorRepository.save(new OrderOutboxCursor(sink.name(), firstId - 1, null));
+
+        relay.relay();
+
+        assertEquals(List.of(1L, 2L, 3L), sink.delivered.stream().map(OrderOutboxEvent::getOrderId).toList());
+        assertEquals(firstId + 2, cursorRepository.findById(sink.name()).orElseThrow().getLastEventId());
+
+        relay.relay();
+        assertEquals(3, sink.delivered.size());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> stats = (Map<String, Object>) relay.stats().get(sink.name());
+        assertEquals(0L, stats.get("pendingEvents"));
+        assertEquals(3L, stats.get("deliveredEvents"));
+        assertEquals(2L, stats.get("batches"));
+    }
+
+    @Test
+    void deliverableStopsAtUnsettledGap() {
+        LocalDateTime settledBefore = LocalDateTime.now().minusSeconds(5);
+        LocalDateTime old = settledBefore.minusSeconds(1);
+        LocalDateTime recent = settledBefore.plusSeconds(1);
+
+        // 11 之后缺少 12，13 仍在等待期内：可能有未提交的事务持有 12
+        List<OrderOutboxEvent> events = List.of(event(10L, old), event(11L, recent), event(13L, recent));
+        assertEquals(List.of(10L, 11L), ids(OrderOutboxRelay.deliverable(events, 9L, settledBefore)));
+
+        // 空洞已超过等待期，视为回滚留下的空洞
+        List<OrderOutboxEvent> settled = List.of(event(10L, old), event(12L, old), event(13L, recent));
+        assertEquals(List.of(10L, 12L, 13L), ids(OrderOutboxRelay.deliverable(settled, 9L, settledBefore)));
+    }
+
+    @Test
+    void fileSinkAppendsJsonLines() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        Path file = tempDir.resolve("outbox/events.jsonl");
+        FileOrderEventSink fileSink = new FileOrderEventSink(file, objectMapper);
+
+        OrderOutboxEvent event = event(7L, LocalDateTime.now());
+        event.setPayload("{\"id\":42,\"status\":\"SHIPPED\"}");
+        fileSink.deliver(List.of(event));
+        fileSink.deliver(List.of(event));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode line = objectMapper.readTree(lines.get(0));
+        assertEquals(7L, line.get("id").asLong());
+        assertEquals("STATUS_CHANGED", line.get("type").asText());
+        assertEquals("SHIPPED", line.get("payload").get("status").asText());
+        assertTrue(line.has("occurredAt"));
+    }
+
+    private Order order(Long id) {
+        User customer = new User();
+        customer.setId(100L + id);
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderNumber("ORD-TEST-" + id);
+        order.setCustomer(customer);
+        return order;
+    }
+
+    private OrderOutboxEvent event(Long id, LocalDateTime createdAt) {
+        return new OrderOutboxEvent(id, 42L, 1L, OrderEventType.STATUS_CHANGED, "{}", createdAt);
+    }
+
+    private List<Long> ids(List<OrderOutboxEvent> events) {
+        return events.stream().map(OrderOutboxEvent::getId).toList();
+    }
+
+    static class RecordingSink implements OrderEventSink {
+        private final List<OrderOutboxEvent> delivered = new ArrayList<>();
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void deliver(List<OrderOutboxEvent> events) {
+            delivered.addAll(events);
+        }
+    }
+}
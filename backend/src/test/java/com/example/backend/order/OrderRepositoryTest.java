@@ -0,0 +1,265 @@
+package com.example.backend.order;
+
+import com.example.backend.common.KeysetCursor;
+import com.example.backend.common.dto.CursorPage;
+import com.example.backend.order.dto.OrderExportRow;
+import com.example.backend.order.dto.OrderResponse;
+import com.example.backend.order.dto.OrderSummary;
+import com.example.backend.product.Product;
+import com.example.backend.product.ProductRepository;
+import com.example.backend.product.dto.ProductResponse;
+import com.example.backend.user.User;
+import com.example.backend.user.UserRole;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // H2 不支持 MySQL 的流式抓取大小 Integer.MIN_VALUE
+        "app.order.export.fetch-size=100"
+})
+@Import(OrderExportService.class)
+class OrderRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MerchantOrderRepository merchantOrderRepository;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    private Statistics statistics;
+
+    private Long merchantId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        User first = entityManager.persist(user("merchant-a", UserRole.MERCHANT));
+        User second = entityManager.persist(user("merchant-b", UserRole.MERCHANT));
+        merchantId = first.getId();
+        Product firstProduct = entityManager.persist(product("Kettle", first));
+        Product secondProduct = entityManager.persist(product("Toaster", second));
+
+        for (int i = 0; i < 6; i++) {
+            User customer = entityManager.persist(user("customer-" + i, UserRole.CUSTOMER));
+            Order order = new Order();
+            order.setOrderNumber("ORD-TEST-" + i);
+            order.setCustomer(customer);
+            order.getItems().add(item(order, firstProduct));
+            order.getItems().add(item(order, secondProduct));
+            entityManager.persistAndFlush(order);
+            order.setStatus(i % 2 == 0 ? OrderStatus.PENDING_PAYMENT : OrderStatus.SHIPPED);
+            entityManager.persist(new MerchantOrder(null, first.getId(), order.getId(), order.getOrderDate(), order.getStatus()));
+            entityManager.persist(new MerchantOrder(null, second.getId(), order.getId(), order.getOrderDate(), order.getStatus()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void merchantOrderSummaryPageUsesFixedStatementCount() {
+        Page<OrderSummary> page = orderRepository.findSummariesByMerchantId(merchantId,
+                PageRequest.of(0, 4, Sort.by("orderDate").descending()));
+
+        assertEquals(4, page.getNumberOfElements());
+        assertEquals(6, page.getTotalElements());
+        page.forEach(summary -> assertNotNull(summary.getCustomerId()));
+        // 列表页 + COUNT，不加载用户、订单项和商户
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void merchantOrderSummariesFilterByStatusWithoutOrderItems() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "orderDate", "orderId"));
+        Page<OrderSummary> shipped = merchantOrderRepository.findSummaries(merchantId, OrderStatus.SHIPPED, pageable);
+
+        assertEquals(3, shipped.getTotalElements());
+        shipped.forEach(summary -> assertEquals(OrderStatus.SHIPPED, summary.getStatus()));
+
+        List<Long> ids = shipped.stream().map(OrderSummary::getId).toList();
+        merchantOrderRepository.updateStatus(ids, OrderStatus.DELIVERED);
+        assertEquals(0, merchantOrderRepository.findSummaries(merchantId, OrderStatus.SHIPPED, pageable).getTotalElements());
+        assertEquals(6, merchantOrderRepository.findSummaries(merchantId, pageable).getTotalElements());
+    }
+
+    @Test
+    void allOrderSummariesPageUsesFixedStatementCount() {
+        Page<OrderSummary> page = orderRepository.findAllSummaries(PageRequest.of(0, 5));
+
+        assertEquals(5, page.getNumberOfElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void orderDetailsFetchItemsAndMerchantsInSameQuery() {
+        Long orderId = orderRepository.findAllSummaries(PageRequest.of(0, 1)).getContent().get(0).getId();
+        statistics.clear();
+
+        OrderResponse response = OrderResponse.fromEntity(orderRepository.findWithDetailsById(orderId).orElseThrow());
+
+        assertEquals(2, response.getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void orderSeekPagesBreakOrderDateTiesByIdWithoutGapsOrDuplicates() {
+        // 五个订单同一时间下单，一个更晚
+        LocalDateTime tied = LocalDateTime.of(2025, 3, 1, 12, 0);
+        entityManager.getEntityManager().createNativeQuery("UPDATE orders SET order_date = ?1")
+                .setParameter(1, tied).executeUpdate();
+        Long latest = orderRepository.findAll().get(0).getId();
+        entityManager.getEntityManager().createNativeQuery("UPDATE orders SET order_date = ?1 WHERE id = ?2")
+                .setParameter(1, tied.plusSeconds(1)).setParameter(2, latest).executeUpdate();
+        entityManager.clear();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            List<OrderSummary> rows = after == null
+                    ? orderRepository.findFirstSummaries(PageRequest.of(0, 3))
+                    : orderRepository.findSummariesBefore(after.createdAt(), after.id(), PageRequest.of(0, 3));
+            CursorPage<OrderSummary> page = CursorPage.of(rows, 2,
+                    order -> new KeysetCursor(order.getOrderDate(), order.getId()), Function.identity());
+            page.getContent().forEach(order -> seen.add(order.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        List<Long> expected = new ArrayList<>(orderRepository.findAll().stream().map(Order::getId)
+                .filter(id -> !id.equals(latest)).sorted(Comparator.reverseOrder()).toList());
+        expected.add(0, latest);
+        assertEquals(expected, seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void productSeekPagesBreakCreatedAtTiesById() {
+        entityManager.getEntityManager().createNativeQuery("UPDATE products SET created_at = ?1")
+                .setParameter(1, LocalDateTime.of(2025, 3, 1, 12, 0)).executeUpdate();
+        entityManager.clear();
+
+        List<Product> first = productRepository.findAllByOrderByCreatedAtDescIdDesc(PageRequest.of(0, 1));
+        Product last = first.get(0);
+        List<Product> second = productRepository.findAllBefore(last.getCreatedAt(), last.getId(), PageRequest.of(0, 1));
+        List<Product> third = productRepository.findAllBefore(second.get(0).getCreatedAt(), second.get(0).getId(),
+                PageRequest.of(0, 1));
+
+        assertEquals(1, second.size());
+        assertTrue(second.get(0).getId() < last.getId());
+        assertEquals(List.of(), third);
+    }
+
+    @Test
+    void exportStreamAppliesOptionalFilters() {
+        try (Stream<OrderExportRow> all = orderExportService.streamRows(null, null, null, null, null)) {
+            assertEquals(6, all.count());
+        }
+        try (Stream<OrderExportRow> shipped = orderExportService.streamRows(OrderStatus.SHIPPED, null, merchantId,
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1))) {
+            List<OrderExportRow> rows = shipped.toList();
+            assertEquals(3, rows.size());
+            rows.forEach(row -> assertEquals(OrderStatus.SHIPPED, row.getStatus()));
+        }
+        try (Stream<OrderExportRow> none = orderExportService.streamRows(null, null, -1L, null, null)) {
+            assertEquals(0, none.count());
+        }
+    }
+
+    @Test
+    void overduePendingOrdersCountPaymentTimeFromLastFailure() {
+        List<Object[]> pending = orderRepository.findPendingPaymentAfter(0L, PageRequest.of(0, 10));
+        assertEquals(3, pending.size());
+        Long retried = (Long) pending.get(0)[0];
+        LocalDateTime failedAt = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        Order order = entityManager.find(Order.class, retried);
+        order.setPaymentPendingSince(failedAt);
+        entityManager.flush();
+
+        List<Long> overdue = orderRepository.findOverduePendingPaymentIds(LocalDateTime.now().plusMinutes(1),
+                PageRequest.of(0, 10));
+        assertEquals(List.of((Long) pending.get(1)[0], (Long) pending.get(2)[0]), overdue);
+        assertEquals(failedAt, orderRepository.findPendingPaymentAfter(0L, PageRequest.of(0, 1)).get(0)[1]);
+    }
+
+    @Test
+    void productPageFetchesMerchantsInSameQuery() {
+        Page<ProductResponse> page = productRepository.findAll(PageRequest.of(0, 10))
+                .map(ProductResponse::fromProduct);
+
+        assertEquals(2, page.getNumberOfElements());
+        // 单页内容即全部数据时无需 COUNT
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private User user(String username, UserRole role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setBusinessName(role == UserRole.MERCHANT ? username + " Pty Ltd" : null);
+        return user;
+    }
+
+    private Product product(String name, User merchant) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(100);
+        product.setMerchant(merchant);
+        return product;
+    }
+
+    private OrderItem item(Order order, Product product) {
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setProduct(product);
+        item.setMerchant(product.getMerchant());
+        item.setProductName(product.getName());
+        item.setUnitPrice(product.getPrice());
+        item.setQuantity(1);
+        item.setTotalPrice(product.getPrice());
+        return item;
+    }
+}
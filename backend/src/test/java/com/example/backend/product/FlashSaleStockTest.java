@@ -0,0 +1,184 @@
+package com.example.backend.product;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FlashSaleStockTest {
+
+    private static final Long PRODUCT_ID = 7L;
+
+    /** 模拟 products.stock，多个实例共用 */
+    private final AtomicInteger databaseStock = new AtomicInteger();
+
+    private ProductStockUpdater productStockUpdater;
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productStockUpdater = mock(ProductStockUpdater.class);
+        when(productStockUpdater.lease(eq(PRODUCT_ID), anyInt())).thenAnswer(invocation -> {
+            int quantity = invocation.getArgument(1);
+            int current;
+            do {
+                current = databaseStock.get();
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!databaseStock.compareAndSet(current, current - quantity));
+            return true;
+        });
+        doAnswer(invocation -> databaseStock.addAndGet(invocation.getArgument(1)))
+                .when(productStockUpdater).returnLeased(eq(PRODUCT_ID), anyInt());
+
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void concurrentAcquiresAcrossInstancesNeverExceedDatabaseStock() throws Exception {
+        databaseStock.set(100);
+        FlashSaleStock first = instance();
+        FlashSaleStock second = instance();
+        first.start(PRODUCT_ID);
+        second.start(PRODUCT_ID);
+
+        AtomicInteger acquired = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            FlashSaleStock stock = t % 2 == 0 ? first : second;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 50; i++) {
+                    if (stock.tryAcquire(PRODUCT_ID, 1)) {
+                        acquired.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(100, acquired.get());
+        assertEquals(0, databaseStock.get());
+        assertEquals(0, first.available(PRODUCT_ID) + second.available(PRODUCT_ID));
+        assertFalse(first.tryAcquire(PRODUCT_ID, 1));
+        assertFalse(second.tryAcquire(PRODUCT_ID, 1));
+    }
+
+    @Test
+    void leasesInBatchesAndTakesOnlyTheShortfallNearTheEnd() {
+        databaseStock.set(25);
+        FlashSaleStock stock = instance();
+        stock.start(PRODUCT_ID);
+
+        assertTrue(stock.tryAcquire(PRODUCT_ID, 1));
+        assertEquals(19, stock.available(PRODUCT_ID));
+        assertEquals(5, databaseStock.get());
+
+        assertTrue(stock.tryAcquire(PRODUCT_ID, 19));
+        assertTrue(stock.tryAcquire(PRODUCT_ID, 3));
+        assertEquals(2, databaseStock.get());
+
+        assertFalse(stock.tryAcquire(PRODUCT_ID, 3));
+        assertTrue(stock.isSoldOut(PRODUCT_ID, 1));
+        assertEquals(2, databaseStock.get());
+
+        // 归还后清除售罄标记
+        stock.release(PRODUCT_ID, 3);
+        assertFalse(stock.isSoldOut(PRODUCT_ID, 1));
+        assertTrue(stock.tryAcquire(PRODUCT_ID, 5));
+        assertEquals(0, databaseStock.get());
+    }
+
+    @Test
+    void flushAddsConfirmedSalesOnce() {
+        databaseStock.set(10);
+        FlashSaleStock stock = instance();
+        stock.start(PRODUCT_ID);
+        assertTrue(stock.tryAcquire(PRODUCT_ID, 3));
+        stock.confirm(PRODUCT_ID, 3);
+        assertTrue(stock.tryAcquire(PRODUCT_ID, 2));
+        stock.confirm(PRODUCT_ID, 2);
+
+        stock.flush();
+        verify(productStockUpdater).addSales(Map.of(PRODUCT_ID, 5));
+
+        stock.flush();
+        verify(productStockUpdater).addSales(anyMap());
+    }
+
+    @Test
+    void stopReturnsUnsoldLeaseAndLateCancellationsRestoreDatabase() {
+        databaseStock.set(30);
+        FlashSaleStock stock = instance();
+        stock.start(PRODUCT_ID);
+        assertTrue(stock.tryAcquire(PRODUCT_ID, 4));
+        stock.confirm(PRODUCT_ID, 4);
+        assertEquals(10, databaseStock.get());
+
+        stock.stop(PRODUCT_ID);
+        assertFalse(stock.isActive(PRODUCT_ID));
+        assertEquals(26, databaseStock.get());
+
+        stock.restore(PRODUCT_ID, 1);
+        stock.flush();
+        assertEquals(27, databaseStock.get());
+        verify(productStockUpdater).addSales(Map.of(PRODUCT_ID, 4));
+    }
+
+    @Test
+    void refreshFollowsDatabaseFlag() {
+        databaseStock.set(30);
+        FlashSaleStock stock = instance();
+        when(productRepository.findFlashSaleIds()).thenReturn(List.of(PRODUCT_ID));
+        stock.refresh();
+        assertTrue(stock.isActive(PRODUCT_ID));
+        assertTrue(stock.tryAcquire(PRODUCT_ID, 1));
+
+        when(productRepository.findFlashSaleIds()).thenReturn(List.of());
+        stock.refresh();
+        assertFalse(stock.isActive(PRODUCT_ID));
+        assertEquals(29, databaseStock.get());
+        verify(productStockUpdater, never()).addSales(anyMap());
+    }
+
+    private FlashSaleStock instance() {
+        FlashSaleStock stock = new FlashSaleStock();
+        ReflectionTestUtils.setField(stock, "productRepository", productRepository);
+        ReflectionTestUtils.setField(stock, "productStockUpdater", productStockUpdater);
+        ReflectionTestUtils.setField(stock, "productSearchIndex", mock(ProductSearchIndex.class));
+        ReflectionTestUtils.setField(stock, "productCache", mock(ProductCache.class));
+        ReflectionTestUtils.setField(stock, "leaseSize", 20);
+        return stock;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.backend.product;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.index(product(1L, "iPhone 15 Pro", "Apple flagship phone", "Apple", "Electronics"));
+        index.index(product(2L, "Galaxy S24", "Samsung phone with pro camera", "Samsung", "Electronics"));
+        index.index(product(3L, "有机苹果", "新鲜水果", "农场", "生鲜"));
+    }
+
+    @Test
+    void andRequiresAllTermsAndRanksNameMatchesFirst() {
+        ProductSearchIndex.SearchResult result = index.search("pro phone", ProductSearchIndex.Operator.AND, 0, 10);
+
+        assertEquals(List.of(1L, 2L), result.ids());
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    void orMatchesAnyTerm() {
+        ProductSearchIndex.SearchResult result = index.search("galaxy 苹果", ProductSearchIndex.Operator.OR, 0, 10);
+
+        assertEquals(2, result.total());
+        assertTrue(result.ids().containsAll(List.of(2L, 3L)));
+    }
+
+    @Test
+    void matchesTermPrefixes() {
+        assertEquals(List.of(1L), index.search("iph", ProductSearchIndex.Operator.AND, 0, 10).ids());
+    }
+
+    @Test
+    void pagesRankedResults() {
+        ProductSearchIndex.SearchResult result = index.search("electronics", ProductSearchIndex.Operator.AND, 1, 1);
+
+        assertEquals(1, result.ids().size());
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    void reindexAndRemoveReplaceOldTerms() {
+        index.index(product(1L, "iPad Air", "Apple tablet", "Apple", "Electronics"));
+        assertEquals(0, index.search("iphone", ProductSearchIndex.Operator.AND, 0, 10).total());
+
+        Product disabled = product(2L, "Galaxy S24", "Samsung phone", "Samsung", "Electronics");
+        disabled.setEnabled(false);
+        index.index(disabled);
+        index.remove(3L);
+
+        assertEquals(List.of(1L), index.search("electronics", ProductSearchIndex.Operator.OR, 0, 10).ids());
+        assertEquals(0, index.search("苹果", ProductSearchIndex.Operator.AND, 0, 10).total());
+    }
+
+    @Test
+    void rebuildReplaysUpdatesCommittedWhileLoading() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        ReflectionTestUtils.setField(index, "productRepository", productRepository);
+        // 加载读到的是旧数据，读取期间商品 1 被修改、商品 3 被删除并提交
+        when(productRepository.findByIdGreaterThanAndStatusAndEnabledTrueOrderByIdAsc(eq(0L), eq(ProductStatus.ACTIVE), any()))
+                .thenAnswer(invocation -> {
+                    index.index(product(1L, "iPad Air", "Apple tablet", "Apple", "Electronics"));
+                    index.remove(3L);
+                    return List.of(
+                            product(1L, "iPhone 15 Pro", "Apple flagship phone", "Apple", "Electronics"),
+                            product(3L, "有机苹果", "新鲜水果", "农场", "生鲜"),
+                            product(4L, "Pixel 9", "Google phone", "Google", "Electronics"));
+                });
+
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(0, index.search("iphone", ProductSearchIndex.Operator.AND, 0, 10).total());
+        assertEquals(List.of(1L), index.search("ipad", ProductSearchIndex.Operator.AND, 0, 10).ids());
+        assertEquals(0, index.search("苹果", ProductSearchIndex.Operator.AND, 0, 10).total());
+        // 重建前索引中但数据库已没有的商品 2 不再出现
+        assertEquals(List.of(4L), index.search("pixel galaxy", ProductSearchIndex.Operator.OR, 0, 10).ids());
+    }
+
+    private Product product(Long id, String name, String description, String brand, String category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        product.setBrand(brand);
+        product.setCategory(category);
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setEnabled(true);
+        return product;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.backend.product;
+
+import com.example.backend.product.dto.ProductResponse;
+import com.example.backend.product.dto.ProductSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 秒杀进行中时商品接口返回的库存 = 数据库中未租出的库存 + 本实例租借到、尚未售出的库存
+ */
+class ProductServiceFlashSaleTest {
+
+    private static final Long PRODUCT_ID = 7L;
+
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private FlashSaleStock flashSaleStock;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        flashSaleStock = mock(FlashSaleStock.class);
+        ProductCache productCache = new ProductCache();
+        ReflectionTestUtils.setField(productCache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(productCache, "expireAfterWrite", Duration.ofMinutes(5));
+        productCache.init();
+
+        productService = new ProductService();
+        ReflectionTestUtils.setField(productService, "productRepository", productRepository);
+        ReflectionTestUtils.setField(productService, "productCache", productCache);
+        ReflectionTestUtils.setField(productService, "productViewCounter", mock(ProductViewCounter.class));
+        ReflectionTestUtils.setField(productService, "flashSaleStock", flashSaleStock);
+    }
+
+    @Test
+    void detailAddsLeasedStockWithoutChangingTheCachedResponse() {
+        Product product = product(0, ProductStatus.OUT_OF_STOCK);
+        when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(product));
+        when(flashSaleStock.available(PRODUCT_ID)).thenReturn(15);
+
+        ProductResponse during = productService.getProductById(PRODUCT_ID);
+        assertEquals(15, during.getStock());
+        assertEquals(ProductStatus.ACTIVE, during.getStatus());
+
+        // 秒杀结束后缓存中的数据库库存原样返回
+        when(flashSaleStock.available(PRODUCT_ID)).thenReturn(-1);
+        ProductResponse after = productService.getProductById(PRODUCT_ID);
+        assertEquals(0, after.getStock());
+        assertEquals(ProductStatus.OUT_OF_STOCK, after.getStatus());
+    }
+
+    @Test
+    void listsAddLeasedStock() {
+        when(flashSaleStock.available(PRODUCT_ID)).thenReturn(12);
+        when(flashSaleStock.available(8L)).thenReturn(-1);
+        ProductSummary flash = summary(PRODUCT_ID, 30);
+        ProductSummary regular = summary(8L, 4);
+        when(productRepository.findSummariesByStatus(eq(ProductStatus.ACTIVE), any()))
+                .thenReturn(new PageImpl<>(List.of(flash, regular)));
+
+        List<ProductSummary> content = productService.getActiveProducts(PageRequest.of(0, 10)).getContent();
+
+        assertEquals(42, content.get(0).getStock());
+        assertEquals(4, content.get(1).getStock());
+    }
+
+    private Product product(int stock, ProductStatus status) {
+        Product product = new Product();
+        product.setId(PRODUCT_ID);
+        product.setName("Flash Sale Kettle");
+        product.setPrice(new BigDecimal("19.99"));
+        product.setStock(stock);
+        product.setStatus(status);
+        product.setFlashSale(true);
+        return product;
+    }
+
+    private ProductSummary summary(Long id, int stock) {
+        ProductSummary summary = new ProductSummary();
+        summary.setId(id);
+        summary.setStock(stock);
+        summary.setStatus(ProductStatus.ACTIVE);
+        return summary;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.backend.product;
+
+import com.example.backend.user.User;
+import com.example.backend.user.UserRepository;
+import com.example.backend.user.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(ProductStockUpdater.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductStockConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 100;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductStockUpdater productStockUpdater;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Long productId;
+
+    private Long otherProductId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        User merchant = new User();
+        merchant.setUsername("stock-merchant");
+        merchant.setEmail("stock-merchant@example.com");
+        merchant.setPassword("secret");
+        merchant.setRole(UserRole.MERCHANT);
+        merchant = userRepository.save(merchant);
+
+        Product product = new Product();
+        product.setName("Flash Sale Kettle");
+        product.setPrice(new BigDecimal("19.99"));
+        product.setStock(INITIAL_STOCK);
+        product.setMerchant(merchant);
+        productId = productRepository.save(product).getId();
+
+        Product other = new Product();
+        other.setName("Limited Mug");
+        other.setPrice(new BigDecimal("5.00"));
+        other.setStock(1);
+        other.setMerchant(merchant);
+        otherProductId = productRepository.save(other).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    Boolean ok = transactionTemplate.execute(status -> productStockUpdater.reserve(Map.of(productId, 1)));
+                    if (Boolean.TRUE.equals(ok)) {
+                        reserved.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertEquals(INITIAL_STOCK, reserved.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - INITIAL_STOCK, rejected.get());
+        assertEquals(0, product.getStock());
+        assertEquals(INITIAL_STOCK, product.getSalesCount());
+        assertEquals(ProductStatus.OUT_OF_STOCK, product.getStatus());
+    }
+
+    @Test
+    void batchReservationFailsWhenAnyProductIsShort() {
+        Map<Long, Integer> quantities = new TreeMap<>(Map.of(productId, 10, otherProductId, 2));
+
+        assertFalse(productStockUpdater.reserve(quantities));
+        assertTrue(productStockUpdater.reserve(new TreeMap<>(Map.of(productId, 10, otherProductId, 1))));
+
+        assertEquals(INITIAL_STOCK - 10 - 10, productRepository.findById(productId).orElseThrow().getStock());
+        Product other = productRepository.findById(otherProductId).orElseThrow();
+        assertEquals(0, other.getStock());
+        assertEquals(ProductStatus.OUT_OF_STOCK, other.getStatus());
+    }
+
+    @Test
+    void restoreStockReactivatesSoldOutProduct() {
+        transactionTemplate.executeWithoutResult(status ->
+                productStockUpdater.reserve(new TreeMap<>(Map.of(productId, INITIAL_STOCK, otherProductId, 1))));
+        transactionTemplate.executeWithoutResult(status ->
+                productStockUpdater.restore(new TreeMap<>(Map.of(productId, 3, otherProductId, 1))));
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertEquals(3, product.getStock());
+        assertEquals(ProductStatus.ACTIVE, product.getStatus());
+        assertEquals(ProductStatus.ACTIVE, productRepository.findById(otherProductId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void concurrentLeasesNeverExceedStockAndReturnSettlesStatus() throws Exception {
+        AtomicInteger leased = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    if (productStockUpdater.lease(productId, 7)) {
+                        leased.addAndGet(7);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // 100 件按 7 件一批最多租出 98 件；租借不计销量、不改状态
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertEquals(98, leased.get());
+        assertEquals(INITIAL_STOCK - 98, product.getStock());
+        assertEquals(ProductStatus.ACTIVE, product.getStatus());
+        assertTrue(productStockUpdater.lease(productId, 2));
+
+        productStockUpdater.returnLeased(productId, 0);
+        assertEquals(ProductStatus.OUT_OF_STOCK, productRepository.findById(productId).orElseThrow().getStatus());
+        productStockUpdater.returnLeased(productId, 5);
+        product = productRepository.findById(productId).orElseThrow();
+        assertEquals(5, product.getStock());
+        assertEquals(ProductStatus.ACTIVE, product.getStatus());
+
+        productStockUpdater.addSales(Map.of(productId, 95));
+        assertEquals(95, productRepository.findById(productId).orElseThrow().getSalesCount());
+    }
+}
@@ -5,12 +5,12 @@ import { useRouter } from 'next/navigation'
 import Link from 'next/link'
 import Navbar from '@/components/Navbar'
 import { getUser, isAuthenticated } from '@/lib/auth'
-import { getOrdersByUser, type Order } from '@/lib/api'
+import { getOrdersByUser, type OrderSummary } from '@/lib/api'
 import styles from './orders.module.css'
 
 export default function OrdersPage() {
   const router = useRouter()
-  const [orders, setOrders] = useState<Order[]>([])
+  const [orders, setOrders] = useState<OrderSummary[]>([])
   const [loading, setLoading] = useState(true)
   const [error, setError] = useState<string | null>(null)
   const [currentPage, setCurrentPage] = useState(0)
@@ -149,30 +149,10 @@ export default function OrdersPage() {
 
                     <div className={styles.orderItems}>
                       <p className={styles.itemsCount}>
-                        {order.items.length} item{order.items.length !== 1 ? 's' : ''}
+                        Payment: {getStatusLabel(order.paymentStatus)}
                       </p>
-                      <div className={styles.itemsPreview}>
-                        {order.items.slice(0, 3).map((item, index) => (
-                          <span key={item.id} className={styles.itemName}>
-                            {item.productName}
-                            {item.quantity > 1 && ` × ${item.quantity}`}
-                            {index < Math.min(order.items.length, 3) - 1 && ', '}
-                          </span>
-                        ))}
-                        {order.items.length > 3 && (
-                          <span className={styles.moreItems}>
-                            {' '}and {order.items.length - 3} more
-                          </span>
-                        )}
-                      </div>
+                      <span className={styles.viewDetails}>View details →</span>
                     </div>
-
-                    {order.trackingNumber && (
-                      <div className={styles.trackingInfo}>
-                        <span className={styles.trackingLabel}>Tracking:</span>
-                        <span className={styles.trackingNumber}>{order.trackingNumber}</span>
-                      </div>
-                    )}
                   </Link>
                 ))}
               </div>
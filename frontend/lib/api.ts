@@ -259,6 +259,18 @@ export interface Order {
   items: OrderItem[]
 }
 
+// Order list entry: list endpoints return order-table fields only, fetch the order for its items
+export interface OrderSummary {
+  id: number
+  orderNumber: string
+  customerId: number
+  status: OrderStatus
+  paymentStatus: PaymentStatus
+  totalAmount: number
+  orderDate: string
+  updatedAt?: string
+}
+
 export interface PageResponse<T> {
   content: T[]
   totalElements: number
@@ -293,7 +305,7 @@ export const getOrdersByUser = async (
   userId: number,
   page: number = 0,
   size: number = 20
-): Promise<PageResponse<Order>> => {
+): Promise<PageResponse<OrderSummary>> => {
   const response = await fetch(
     `${API_BASE_URL}/orders/user/${userId}?page=${page}&size=${size}&sortBy=orderDate&sortDir=DESC`,
     {